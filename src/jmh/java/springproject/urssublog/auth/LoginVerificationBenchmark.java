@@ -0,0 +1,77 @@
+package springproject.urssublog.auth;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청당 로그인 확인 비용 벤치마크. session 방식(HttpSession 조회)과 token 방식(HMAC 서명 검증)의 authenticate를 비교한다.
+ * session 방식은 session 저장소 조회 비용이 포함되지 않은(메모리의 MockHttpSession) 하한값이다.
+ * 실행 : ./gradlew jmh -Pjmh.includes=LoginVerification
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginVerificationBenchmark {
+    private final SessionLoginManager sessionLoginManager = new SessionLoginManager();
+    private TokenLoginManager tokenLoginManager;
+
+    private MockHttpServletRequest sessionRequest;
+    private MockHttpServletRequest tokenRequest;
+    private MockHttpServletRequest tamperedTokenRequest;
+
+    @Setup
+    public void setUp() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        tokenLoginManager = new TokenLoginManager(secret, Duration.ofHours(1), Clock.systemUTC());
+        LoginUser loginUser = new LoginUser(1L, "wnsx0000@gmail.com", "username~~");
+
+        sessionRequest = new MockHttpServletRequest("GET", "/posts");
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("id", loginUser.getId());
+        session.setAttribute("email", loginUser.getEmail());
+        session.setAttribute("username", loginUser.getUsername());
+        sessionRequest.setSession(session);
+
+        String token = tokenLoginManager.issue(loginUser);
+        tokenRequest = new MockHttpServletRequest("GET", "/posts");
+        tokenRequest.addHeader(TokenLoginManager.HEADER, "Bearer " + token);
+
+        // 서명 첫 문자를 바꾼 token. 서명 검증까지 수행한 뒤 거부된다.
+        int signatureStart = token.indexOf('.') + 1;
+        char first = token.charAt(signatureStart);
+        tamperedTokenRequest = new MockHttpServletRequest("GET", "/posts");
+        tamperedTokenRequest.addHeader(TokenLoginManager.HEADER, "Bearer " + token.substring(0, signatureStart)
+                + (first == 'A' ? 'B' : 'A') + token.substring(signatureStart + 1));
+    }
+
+    @Benchmark
+    public LoginUser sessionAuthenticate() {
+        return sessionLoginManager.authenticate(sessionRequest);
+    }
+
+    @Benchmark
+    public LoginUser tokenAuthenticate() {
+        return tokenLoginManager.authenticate(tokenRequest);
+    }
+
+    @Benchmark
+    public LoginUser tokenAuthenticateTampered() {
+        return tokenLoginManager.authenticate(tamperedTokenRequest);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public LoginUser tokenAuthenticateContended() {
+        return tokenLoginManager.authenticate(tokenRequest);
+    }
+}
@@ -0,0 +1,46 @@
+package springproject.urssublog.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import springproject.urssublog.dto.article.ArticleResponseDto;
+import springproject.urssublog.dto.comment.CommentResponseDto;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 응답 DTO의 Jackson 직렬화 벤치마크. spring MVC와 같은 방식(Jackson2ObjectMapperBuilder)으로 만든 ObjectMapper를 공유해 사용한다.
+ * 실행 : ./gradlew jmh -Pjmh.includes=ResponseDtoSerialization
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseDtoSerializationBenchmark {
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Param({"100", "5000"})
+    private int contentLength;
+
+    private ArticleResponseDto articleResponseDto;
+    private CommentResponseDto commentResponseDto;
+
+    @Setup
+    public void setUp() {
+        String content = "본문content".repeat(Math.max(1, contentLength / 9));
+        articleResponseDto = new ArticleResponseDto(1L, "email@email.com", "title~~", content);
+        commentResponseDto = new CommentResponseDto(1L, "email@email.com", content);
+    }
+
+    @Benchmark
+    public byte[] serializeArticleResponseDto() throws Exception {
+        return objectMapper.writeValueAsBytes(articleResponseDto);
+    }
+
+    @Benchmark
+    public byte[] serializeCommentResponseDto() throws Exception {
+        return objectMapper.writeValueAsBytes(commentResponseDto);
+    }
+}
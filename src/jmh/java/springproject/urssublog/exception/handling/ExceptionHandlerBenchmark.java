@@ -0,0 +1,114 @@
+package springproject.urssublog.exception.handling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import springproject.urssublog.dto.exception.ExceptionResponseDto;
+import springproject.urssublog.dto.user.UserSignupRequestDto;
+import springproject.urssublog.exception.classes.BlogNotAuthorizedException;
+import springproject.urssublog.exception.classes.BlogResourceNotFoundException;
+import springproject.urssublog.exception.classes.BlogUserNotFoundException;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UnitedExceptionHandlingClass 벤치마크. 예외 생성부터 응답 DTO 작성까지의 비용을 handler별로 측정한다.
+ * BlogException은 stack trace 없이 생성되며, *Baseline은 변경 전 처리 방식
+ * (stack trace 생성, 요청마다 HttpStatus 문자열 생성, debug 로그 인자 즉시 생성, counter 조회)이다.
+ * 실행 : ./gradlew jmh -Pjmh.includes=ExceptionHandler -Pjmh.profilers=gc (gc profiler로 요청당 할당량(gc.alloc.rate.norm)도 측정)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UnitedExceptionHandlingClass handler = new UnitedExceptionHandlingClass(meterRegistry);
+    private final MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/posts/10");
+    private MethodArgumentNotValidException notValidException;
+
+    @Setup
+    public void setUp() throws Exception {
+        UserSignupRequestDto target = new UserSignupRequestDto("email", "", "username");
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(target, "userSignupRequestDto");
+        bindingResult.addError(new FieldError("userSignupRequestDto", "email", "이메일 형식이어야 합니다."));
+        bindingResult.addError(new FieldError("userSignupRequestDto", "password", "password가 비어있을 수 없습니다."));
+        MethodParameter parameter = new MethodParameter(
+                ExceptionHandlerBenchmark.class.getDeclaredMethod("signup", UserSignupRequestDto.class), 0);
+        notValidException = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    // MethodArgumentNotValidException의 MethodParameter로만 사용한다.
+    @SuppressWarnings("unused")
+    private void signup(UserSignupRequestDto requestDto) {
+    }
+
+    @Benchmark
+    public ExceptionResponseDto handleBlogNotAuthorizedException() {
+        return handler.handleBlogNotAuthorizedException(
+                new BlogNotAuthorizedException("해당 사용자의 게시글이 아닙니다."), request);
+    }
+
+    @Benchmark
+    public ExceptionResponseDto handleBlogResourceNotFoundException() {
+        return handler.handleBlogResourceNotFoundException(
+                new BlogResourceNotFoundException("해당 id를 가진 게시글이 없습니다."), request);
+    }
+
+    @Benchmark
+    public ExceptionResponseDto handleBlogResourceNotFoundExceptionBaseline() {
+        return baselineHandle(new RuntimeException("해당 id를 가진 게시글이 없습니다."), HttpStatus.NOT_FOUND);
+    }
+
+    @Benchmark
+    public ExceptionResponseDto handleBlogNotAuthorizedExceptionBaseline() {
+        return baselineHandle(new RuntimeException("해당 사용자의 게시글이 아닙니다."), HttpStatus.BAD_REQUEST);
+    }
+
+    @Benchmark
+    public ExceptionResponseDto handleBlogUserNotFoundException() {
+        return handler.handleBlogUserNotFoundException(
+                new BlogUserNotFoundException("해당 email을 가진 사용자가 없습니다."), request);
+    }
+
+    @Benchmark
+    public ExceptionResponseDto handleDataIntegrityViolationException() {
+        return handler.handleDataIntegrityViolationException(
+                new DataIntegrityViolationException("Duplicate entry"), request);
+    }
+
+    @Benchmark
+    public ExceptionResponseDto handleMethodArgumentNotValidException() {
+        return handler.handleMethodArgumentNotValidException(notValidException, request);
+    }
+
+    // 변경 전 handler의 처리 방식. stack trace를 채운 예외를 받는다.
+    private ExceptionResponseDto baselineHandle(RuntimeException e, HttpStatus status) {
+        ExceptionResponseDto responseClass = new ExceptionResponseDto();
+        responseClass.setTime(LocalDateTime.now().toString());
+        responseClass.setStatus(status.toString());
+        responseClass.setMessage(e.getMessage());
+        responseClass.setRequestURI(request.getRequestURI());
+
+        baselineDebugLog(responseClass.toString());
+        meterRegistry.counter("blog.exceptions.baseline",
+                "exception", e.getClass().getSimpleName(),
+                "status", responseClass.getStatus()).increment();
+        return responseClass;
+    }
+
+    // debug 로그가 꺼져 있어도 인자(toString 결과)는 이미 만들어진 상태로 전달되던 것을 재현한다.
+    @SuppressWarnings("unused")
+    private void baselineDebugLog(String message) {
+    }
+}
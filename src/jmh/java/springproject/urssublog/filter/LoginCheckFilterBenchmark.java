@@ -0,0 +1,92 @@
+package springproject.urssublog.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import springproject.urssublog.auth.SessionLoginManager;
+import springproject.urssublog.dto.exception.ExceptionResponseDto;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoginCheckFilter 벤치마크. 로그인하지 않은 요청의 거부 경로를 이전 구현(요청마다 ObjectMapper 생성 후 직렬화)과 비교한다.
+ * 실행 : ./gradlew jmh -Pjmh.includes=LoginCheckFilter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginCheckFilterBenchmark {
+    private final LoginCheckFilter filter = new LoginCheckFilter(new SessionLoginManager(), new SimpleMeterRegistry());
+    private MockHttpServletRequest noLoginRequest;
+    private MockHttpServletRequest accessibleRequest;
+    private MockHttpServletRequest loginRequest;
+
+    @Setup
+    public void setUp() {
+        noLoginRequest = new MockHttpServletRequest("POST", "/posts/10/comments");
+        accessibleRequest = new MockHttpServletRequest("POST", "/users/login");
+        loginRequest = new MockHttpServletRequest("POST", "/posts/10/comments");
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("id", 1L);
+        session.setAttribute("email", "email@email.com");
+        session.setAttribute("username", "username~~");
+        loginRequest.setSession(session);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse rejectNoLogin() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(noLoginRequest, response, new MockFilterChain());
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse rejectNoLoginBaseline() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        baselineReject(noLoginRequest.getRequestURI(), response);
+        return response;
+    }
+
+    @Benchmark
+    public void passAccessibleUri(Blackhole blackhole) throws Exception {
+        FilterChain chain = new MockFilterChain();
+        filter.doFilter(accessibleRequest, new MockHttpServletResponse(), chain);
+        blackhole.consume(chain);
+    }
+
+    @Benchmark
+    public void passLoginStatus(Blackhole blackhole) throws Exception {
+        FilterChain chain = new MockFilterChain();
+        filter.doFilter(loginRequest, new MockHttpServletResponse(), chain);
+        blackhole.consume(chain);
+    }
+
+    // 변경 전 LoginCheckFilter의 거부 응답 작성 방식
+    private void baselineReject(String requestUri, HttpServletResponse response) throws Exception {
+        ExceptionResponseDto responseDto = new ExceptionResponseDto(
+                LocalDateTime.now().toString(),
+                "400 BAD_REQUEST",
+                "로그인 중이 아닙니다.",
+                requestUri
+        );
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+
+        response.setStatus(400);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write(objectMapper.writeValueAsString(responseDto));
+    }
+}
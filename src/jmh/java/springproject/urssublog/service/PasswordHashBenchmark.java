@@ -0,0 +1,48 @@
+package springproject.urssublog.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import springproject.urssublog.auth.Sha256PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 비밀번호 해시 벤치마크. 이전 형식(SHA-256)과 회원가입, 로그인에서 사용하는 Argon2(AuthConfig 기본 parameter)의 해시 비용을 비교한다.
+ * PasswordHasher의 스레드 수, 대기열 크기를 정할 때 해시 한 번의 시간으로 사용한다.
+ * 실행 : ./gradlew jmh -Pjmh.includes=PasswordHash
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordHashBenchmark {
+    private final Sha256PasswordEncoder sha256 = new Sha256PasswordEncoder();
+    private final Argon2PasswordEncoder argon2 = new Argon2PasswordEncoder(16, 32, 1, 16384, 2);
+
+    @Param({"password~", "a-much-longer-password-with-some-entropy-1234567890!@#"})
+    private String password;
+
+    private String argon2Encoded;
+
+    @Setup
+    public void setUp() {
+        argon2Encoded = argon2.encode(password);
+    }
+
+    @Benchmark
+    public String sha256Encode() {
+        return sha256.encode(password);
+    }
+
+    @Benchmark
+    public String argon2Encode() {
+        return argon2.encode(password);
+    }
+
+    @Benchmark
+    public boolean argon2Matches() {
+        return argon2.matches(password, argon2Encoded);
+    }
+}
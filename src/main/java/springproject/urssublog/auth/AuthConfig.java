@@ -0,0 +1,70 @@
+package springproject.urssublog.auth;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.util.StringUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+
+// blog.auth.mode 설정에 따라 LoginManager를 하나만 등록한다. 비밀번호 해시(PasswordHasher), 로그인 시도 수 제한(LoginRateLimiter)도 여기서 등록한다.
+@Configuration
+public class AuthConfig {
+    @Bean
+    @ConditionalOnProperty(name = "blog.auth.mode", havingValue = "session", matchIfMissing = true)
+    public LoginManager sessionLoginManager() {
+        return new SessionLoginManager();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "blog.auth.mode", havingValue = "token")
+    public LoginManager tokenLoginManager(
+            @Value("${blog.auth.token.secret:}") String secret,
+            @Value("${blog.auth.token.ttl:1h}") Duration ttl
+    ) {
+        if(!StringUtils.hasText(secret)) {
+            throw new IllegalStateException("blog.auth.token.secret must be set when blog.auth.mode=token");
+        }
+        return new TokenLoginManager(Base64.getDecoder().decode(secret), ttl, Clock.systemUTC());
+    }
+
+    // 새 비밀번호는 "{argon2}..." 형식으로 저장하고, prefix가 없는 이전 SHA-256 형식도 확인할 수 있도록 한다.
+    @Bean
+    public PasswordHasher passwordHasher(
+            @Value("${blog.password.argon2.memory-kb:16384}") int memoryKb,
+            @Value("${blog.password.argon2.iterations:2}") int iterations,
+            @Value("${blog.password.hash.threads:0}") int threads,
+            @Value("${blog.password.hash.queue-capacity:64}") int queueCapacity,
+            @Value("${blog.password.hash.max-wait:2s}") Duration maxWait,
+            MeterRegistry meterRegistry
+    ) {
+        Argon2PasswordEncoder argon2 = new Argon2PasswordEncoder(16, 32, 1, memoryKb, iterations);
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("argon2", Map.of("argon2", argon2));
+        passwordEncoder.setDefaultPasswordEncoderForMatches(new Sha256PasswordEncoder());
+
+        // 기본값은 CPU 수. 해시 계산은 CPU를 모두 사용하므로 그 이상 늘려도 처리량이 늘지 않는다.
+        int hashThreads = (threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        return new PasswordHasher(passwordEncoder, hashThreads, queueCapacity, maxWait, meterRegistry);
+    }
+
+    @Bean
+    public LoginRateLimiter loginRateLimiter(
+            @Value("${blog.login.rate-limit.per-ip:20}") int perIp,
+            @Value("${blog.login.rate-limit.per-email:5}") int perEmail,
+            @Value("${blog.login.rate-limit.window:1m}") Duration window,
+            @Value("${blog.login.rate-limit.maximum-keys:100000}") long maximumKeys,
+            MeterRegistry meterRegistry
+    ) {
+        return new LoginRateLimiter(
+                new SlidingWindowRateLimiter(perIp, window, maximumKeys, Clock.systemUTC()),
+                new SlidingWindowRateLimiter(perEmail, window, maximumKeys, Clock.systemUTC()),
+                meterRegistry);
+    }
+}
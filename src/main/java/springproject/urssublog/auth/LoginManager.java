@@ -0,0 +1,26 @@
+package springproject.urssublog.auth;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 로그인 상태를 유지하는 방식. blog.auth.mode 설정으로 session(기본)과 token 중 하나가 사용된다.
+ * @author Jun Lee
+ */
+public interface LoginManager {
+    /**
+     * 요청의 로그인 정보를 확인해 로그인 중인 사용자를 반환한다. 로그인 중이 아니면 null을 반환한다.
+     * 새로운 session 등 상태를 만들지 않아야 한다.
+     */
+    LoginUser authenticate(HttpServletRequest request);
+
+    /**
+     * 로그인에 성공한 사용자의 로그인 상태를 만든다.
+     */
+    void login(LoginUser loginUser, HttpServletRequest request, HttpServletResponse response);
+
+    /**
+     * 로그인 상태를 제거한다.
+     */
+    void logout(HttpServletRequest request);
+}
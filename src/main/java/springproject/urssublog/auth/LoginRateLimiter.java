@@ -0,0 +1,66 @@
+package springproject.urssublog.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import springproject.urssublog.exception.classes.BlogTooManyRequestsException;
+
+import java.util.Locale;
+
+/**
+ * 로그인 시도 수 제한. client IP별, email별로 각각 sliding window 안의 시도 수를 제한해,
+ * 제한을 넘은 시도는 회원 조회(DB), 비밀번호 해시 전에 BlogTooManyRequestsException(429)으로 거부한다.
+ * @author Jun Lee
+ */
+@Slf4j
+public class LoginRateLimiter {
+    private final SlidingWindowRateLimiter ipLimiter;
+    private final SlidingWindowRateLimiter emailLimiter;
+    private final Counter ipThrottledCounter;
+    private final Counter emailThrottledCounter;
+
+    public LoginRateLimiter(SlidingWindowRateLimiter ipLimiter, SlidingWindowRateLimiter emailLimiter,
+                            MeterRegistry meterRegistry) {
+        this.ipLimiter = ipLimiter;
+        this.emailLimiter = emailLimiter;
+        this.ipThrottledCounter = throttledCounter(meterRegistry, "ip");
+        this.emailThrottledCounter = throttledCounter(meterRegistry, "email");
+        Gauge.builder("blog.login.rate-limit.keys", ipLimiter, SlidingWindowRateLimiter::estimatedKeyCount)
+                .tag("key", "ip")
+                .register(meterRegistry);
+        Gauge.builder("blog.login.rate-limit.keys", emailLimiter, SlidingWindowRateLimiter::estimatedKeyCount)
+                .tag("key", "email")
+                .register(meterRegistry);
+    }
+
+    private static Counter throttledCounter(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("blog.login.throttled")
+                .description("Login attempts rejected by the sliding window rate limiter")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 로그인 시도를 기록한다. client IP 또는 email의 시도 수가 제한을 넘으면 예외를 던진다.
+     * 거부된 시도는 어느 쪽에도 세지 않는다. (email 제한에 걸린 경우 먼저 기록한 IP의 시도를 되돌린다.)
+     * @author Jun Lee
+     */
+    public void checkLoginAttempt(String clientIp, String email) {
+        if(!ipLimiter.tryAcquire(clientIp)) {
+            ipThrottledCounter.increment();
+            throw throttled("ip", clientIp, ipLimiter);
+        }
+        if(email != null && !emailLimiter.tryAcquire(email.trim().toLowerCase(Locale.ROOT))) {
+            ipLimiter.release(clientIp);
+            emailThrottledCounter.increment();
+            throw throttled("email", email, emailLimiter);
+        }
+    }
+
+    private BlogTooManyRequestsException throttled(String keyType, String key, SlidingWindowRateLimiter limiter) {
+        log.debug("LoginRateLimiter, login attempt throttled. {}={}", keyType, key);
+        return new BlogTooManyRequestsException("로그인 시도가 너무 많습니다. 잠시 후 다시 시도해 주세요.",
+                limiter.retryAfterSeconds());
+    }
+}
@@ -0,0 +1,29 @@
+package springproject.urssublog.auth;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 로그인 중인 사용자 정보. LoginCheckFilter가 인증에 성공하면 request attribute로 저장하고, controller는 from()으로 꺼내 사용한다.
+ * @author Jun Lee
+ */
+@Getter
+@AllArgsConstructor
+public class LoginUser {
+    public static final String REQUEST_ATTRIBUTE = LoginUser.class.getName();
+
+    private final Long id;
+    private final String email;
+    private final String username;
+
+    // LoginCheckFilter를 통과한 요청에서만 null이 아니다.
+    public static LoginUser from(HttpServletRequest request) {
+        return (LoginUser) request.getAttribute(REQUEST_ATTRIBUTE);
+    }
+
+    @Override
+    public String toString() {
+        return "LoginUser(id=" + id + ", email=" + email + ", username=" + username + ")";
+    }
+}
@@ -0,0 +1,155 @@
+package springproject.urssublog.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import springproject.urssublog.exception.classes.BlogServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 비밀번호 해시(Argon2)를 전용 스레드 풀에서 실행한다.
+ * Argon2는 의도적으로 CPU, 메모리를 많이 사용하므로 요청 스레드에서 바로 실행하면 로그인이 몰릴 때 모든 요청 스레드가 해시 계산에 묶인다.
+ * 동시에 계산하는 해시 수는 threads개, 대기열은 queueCapacity개로 제한하고, 대기열이 가득 찼거나 maxWait 안에 끝나지 않으면
+ * BlogServiceUnavailableException(503)을 던진다.
+ * maxWait을 넘긴 작업은 취소하지만 Argon2 계산은 interrupt로 멈추지 않으므로, 호출한 쪽이 503을 받은 뒤에도 스레드는 계산을 끝낼 때까지 사용된다.
+ * 따라서 과부하 시 실제로 처리되는 해시 수는 threads개를 넘지 않고, 대기열이 가득 차 거부되는 것으로 부하가 제한된다.
+ * queueCapacity는 threads개의 스레드가 maxWait 안에 처리할 수 있는 수(threads * maxWait / 해시 시간) 정도로 둔다.
+ * @author Jun Lee
+ */
+@Slf4j
+public class PasswordHasher {
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitNanos;
+    // 없는 회원의 로그인에서 비교할 해시. 처음 사용할 때 현재 형식, parameter로 한 번 계산한다.
+    private volatile String dummyHash;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, int threads, int queueCapacity, Duration maxWait,
+                          MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.maxWaitNanos = maxWait.toNanos();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.queueWaitTimer = Timer.builder("blog.password.hash.queue.wait")
+                .description("Time a password hash task waited in the hashing queue")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("blog.password.hash.rejected")
+                .description("Password hash tasks rejected because the queue was full or the wait timed out")
+                .register(meterRegistry);
+        Gauge.builder("blog.password.hash.queue.size", executor, e -> e.getQueue().size())
+                .description("Password hash tasks waiting in the hashing queue")
+                .register(meterRegistry);
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("blog.password.hash")
+                .description("Password hash computation time, excluding queue wait")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // 비밀번호를 현재 형식으로 해시한다.
+    public String encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    // 저장된 비밀번호(현재 형식 또는 이전 형식)와 일치하는지 확인한다.
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // 없는 회원의 로그인에서 호출한다. 있는 회원과 같은 시간이 걸리도록 dummy 해시와 비교하고 결과는 버린다.
+    // (응답 시간으로 가입된 email인지 알 수 없도록 한다.)
+    public void matchesNone(String rawPassword) {
+        submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, dummyHash()));
+    }
+
+    private String dummyHash() {
+        String hash = dummyHash;
+        if(hash == null) {
+            hash = passwordEncoder.encode(UUID.randomUUID().toString());
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    // 저장된 비밀번호가 이전 형식(또는 이전 parameter)이라 다시 해시해야 하는지 확인한다. 해시 계산 없이 형식만 확인한다.
+    public boolean needsUpgrade(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Timer hashTimer, Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                queueWaitTimer.record(start - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                }
+                finally {
+                    hashTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            throw reject("queue is full");
+        }
+
+        try {
+            return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        }
+        catch (TimeoutException e) {
+            future.cancel(true);
+            throw reject("timed out");
+        }
+        catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw reject("interrupted");
+        }
+        catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("PasswordHasher, password hashing failed", e.getCause());
+        }
+    }
+
+    private BlogServiceUnavailableException reject(String reason) {
+        rejectedCounter.increment();
+        log.debug("PasswordHasher, password hash rejected. reason={}, queue size={}", reason, executor.getQueue().size());
+        return new BlogServiceUnavailableException("요청이 많아 로그인을 처리할 수 없습니다. 잠시 후 다시 시도해 주세요.");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,40 @@
+package springproject.urssublog.auth;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * HttpSession에 로그인 정보(id, email, username)를 저장하는 방식. (blog.auth.mode=session, 기본값)
+ * @author Jun Lee
+ */
+public class SessionLoginManager implements LoginManager {
+    @Override
+    public LoginUser authenticate(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if(session == null) {
+            return null;
+        }
+        Long id = (Long) session.getAttribute("id");
+        if(id == null) {
+            return null;
+        }
+        return new LoginUser(id, (String) session.getAttribute("email"), (String) session.getAttribute("username"));
+    }
+
+    @Override
+    public void login(LoginUser loginUser, HttpServletRequest request, HttpServletResponse response) {
+        HttpSession session = request.getSession(true);
+        session.setAttribute("id", loginUser.getId());
+        session.setAttribute("email", loginUser.getEmail());
+        session.setAttribute("username", loginUser.getUsername());
+    }
+
+    @Override
+    public void logout(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if(session != null) {
+            session.invalidate();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package springproject.urssublog.auth;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * 이전 비밀번호 형식(prefix 없는 base64(SHA-256(password))). 기존 회원의 로그인 확인에만 사용하고, 로그인에 성공하면 Argon2 형식으로 다시 저장된다.
+ * @author Jun Lee
+ */
+public class Sha256PasswordEncoder implements PasswordEncoder {
+    public static String sha256(String s) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(s.getBytes()));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return sha256(rawPassword.toString());
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if(encodedPassword == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(sha256(rawPassword.toString()).getBytes(StandardCharsets.US_ASCII),
+                encodedPassword.getBytes(StandardCharsets.US_ASCII));
+    }
+}
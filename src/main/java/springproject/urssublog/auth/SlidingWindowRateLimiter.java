@@ -0,0 +1,107 @@
+package springproject.urssublog.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * key별 sliding window 요청 수 제한.
+ * key마다 (window 번호, 현재 window 요청 수, 이전 window 요청 수)를 AtomicLong 하나에 담아 CAS로 갱신하므로, 요청마다 lock 없이 O(1)로 처리된다.
+ * 요청 수는 이전 window의 요청 수를 현재 window와 겹치는 비율만큼 더해 추정한다. (sliding window counter)
+ * 2개 window 동안 요청이 없는 key는 자동으로 제거되고, key 수는 maximumKeys로 제한된다.
+ * @author Jun Lee
+ */
+public class SlidingWindowRateLimiter {
+    private static final long COUNT_MASK = 0xFFFFL;
+
+    private final int limit;
+    private final long windowMillis;
+    private final Clock clock;
+    private final Cache<String, AtomicLong> windows;
+
+    public SlidingWindowRateLimiter(int limit, Duration window, long maximumKeys, Clock clock) {
+        if(limit <= 0 || limit > COUNT_MASK) {
+            throw new IllegalArgumentException("limit must be between 1 and " + COUNT_MASK + " : " + limit);
+        }
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(window.multipliedBy(2))
+                .build();
+    }
+
+    /**
+     * key의 요청을 하나 기록한다. 제한을 넘는 경우 기록하지 않고 false를 반환한다.
+     * @author Jun Lee
+     */
+    public boolean tryAcquire(String key) {
+        AtomicLong state = windows.get(key, k -> new AtomicLong());
+        long now = clock.millis();
+        long window = now / windowMillis;
+        // 현재 window에서 지난 시간 비율만큼 이전 window의 요청 수를 줄여서 반영한다.
+        double previousWeight = 1.0 - (double) (now - window * windowMillis) / windowMillis;
+
+        while (true) {
+            long current = state.get();
+            int stateWindow = (int) (current >>> 32);
+            long count = (current >>> 16) & COUNT_MASK;
+            long previous = current & COUNT_MASK;
+
+            int elapsedWindows = (int) window - stateWindow;
+            if(elapsedWindows == 1) {
+                previous = count;
+                count = 0;
+            }
+            else if(elapsedWindows != 0) {
+                previous = 0;
+                count = 0;
+            }
+
+            if(previous * previousWeight + count + 1 > limit) {
+                return false;
+            }
+            long next = ((window & 0xFFFFFFFFL) << 32) | ((count + 1) << 16) | previous;
+            if(state.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * tryAcquire로 기록한 요청 하나를 되돌린다. 다른 제한에 걸려 거부된 요청을 세지 않을 때 사용한다.
+     * @author Jun Lee
+     */
+    public void release(String key) {
+        AtomicLong state = windows.getIfPresent(key);
+        if(state == null) {
+            return;
+        }
+        while (true) {
+            long current = state.get();
+            long count = (current >>> 16) & COUNT_MASK;
+            if(count == 0) {
+                return;
+            }
+            long next = current - (1L << 16);
+            if(state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    // 제한에 걸린 요청이 다시 시도할 때까지 기다려야 하는 최대 시간(초)
+    public long retryAfterSeconds() {
+        long remaining = windowMillis - clock.millis() % windowMillis;
+        return Math.max(1, (remaining + 999) / 1000);
+    }
+
+    // 현재 기록 중인 key 수 (추정값)
+    public long estimatedKeyCount() {
+        return windows.estimatedSize();
+    }
+}
@@ -0,0 +1,168 @@
+package springproject.urssublog.auth;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * HMAC-SHA256으로 서명한 token으로 로그인 상태를 유지하는 방식. (blog.auth.mode=token)
+ * 로그인 시 Authorization 응답 header로 token을 발급하고, 이후 요청은 "Authorization: Bearer {token}" header로 보낸다.
+ * 검증은 서명과 만료 시각만 확인하므로 session 생성이나 저장소 조회가 없다.
+ * 서버에 상태가 없으므로 로그아웃은 client가 token을 버리는 것으로 처리되고, 발급된 token은 만료 시각까지 유효하다.
+ *
+ * token : base64url(payload) + "." + base64url(HMAC-SHA256(payload))
+ * payload : version(1) | user id(8) | 만료 시각 epoch second(8) | email 길이(2) | email | username 길이(2) | username
+ * @author Jun Lee
+ */
+public class TokenLoginManager implements LoginManager {
+    public static final String HEADER = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1;
+    private static final int MIN_SECRET_LENGTH = 32;
+    private static final int SIGNATURE_LENGTH = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+    // Mac은 thread-safe하지 않고 생성 비용이 크므로, 스레드(가상 스레드 포함) 수와 무관하게 재사용할 수 있도록 pool로 관리한다.
+    private final Queue<Mac> macPool = new ConcurrentLinkedQueue<>();
+
+    public TokenLoginManager(byte[] secret, Duration ttl, Clock clock) {
+        if(secret.length < MIN_SECRET_LENGTH) {
+            throw new IllegalArgumentException("token secret must be at least " + MIN_SECRET_LENGTH + " bytes");
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+        macPool.offer(newMac()); // 잘못된 키는 시작 시점에 실패하도록 한 번 생성해 둔다.
+    }
+
+    @Override
+    public LoginUser authenticate(HttpServletRequest request) {
+        String header = request.getHeader(HEADER);
+        if(header == null || !header.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        return verify(header.substring(BEARER_PREFIX.length()));
+    }
+
+    @Override
+    public void login(LoginUser loginUser, HttpServletRequest request, HttpServletResponse response) {
+        response.setHeader(HEADER, BEARER_PREFIX + issue(loginUser));
+    }
+
+    @Override
+    public void logout(HttpServletRequest request) {
+        // 서버에 저장된 상태가 없다.
+    }
+
+    /**
+     * 로그인 사용자 정보로 token을 발급한다.
+     * @author Jun Lee
+     */
+    public String issue(LoginUser loginUser) {
+        byte[] email = loginUser.getEmail().getBytes(StandardCharsets.UTF_8);
+        byte[] username = loginUser.getUsername().getBytes(StandardCharsets.UTF_8);
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+
+        ByteBuffer payload = ByteBuffer.allocate(1 + 8 + 8 + 2 + email.length + 2 + username.length);
+        payload.put(VERSION).putLong(loginUser.getId()).putLong(expiresAt);
+        payload.putShort((short) email.length).put(email);
+        payload.putShort((short) username.length).put(username);
+
+        byte[] payloadBytes = payload.array();
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * token의 서명과 만료 시각을 확인해 로그인 사용자 정보를 반환한다. 형식이 잘못되었거나, 서명이 다르거나, 만료된 경우 null을 반환한다.
+     * @author Jun Lee
+     */
+    public LoginUser verify(String token) {
+        int dot = token.indexOf('.');
+        if(dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        }
+        catch (IllegalArgumentException e) {
+            return null;
+        }
+        if(signature.length != SIGNATURE_LENGTH || !MessageDigest.isEqual(sign(payload), signature)) {
+            return null;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            if(buffer.get() != VERSION) {
+                return null;
+            }
+            long id = buffer.getLong();
+            long expiresAt = buffer.getLong();
+            if(clock.instant().getEpochSecond() >= expiresAt) {
+                return null;
+            }
+            String email = readString(buffer);
+            String username = readString(buffer);
+            return (buffer.hasRemaining() ? null : new LoginUser(id, email, username));
+        }
+        catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if(length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private byte[] sign(byte[] payload) {
+        Mac mac = macPool.poll();
+        if(mac == null) {
+            mac = newMac();
+        }
+        try {
+            return mac.doFinal(payload);
+        }
+        finally {
+            macPool.offer(mac);
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        }
+        catch (GeneralSecurityException e) {
+            throw new IllegalStateException("TokenLoginManager, failed to initialize " + ALGORITHM, e);
+        }
+    }
+}
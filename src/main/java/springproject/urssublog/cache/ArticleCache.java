@@ -0,0 +1,107 @@
+package springproject.urssublog.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import springproject.urssublog.dto.article.ArticleResponseDto;
+import springproject.urssublog.event.ArticleChangedEvent;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * 게시글 단건 조회 결과(ArticleResponseDto)를 보관하는 in-process 캐시.
+ * Caffeine(W-TinyLFU)으로 최대 개수와 TTL을 제한하고, hit/miss/eviction 통계를 cache.* metrics(cache=article)로 노출한다.
+ *
+ * 같은 게시글에 대한 동시 조회는 진행 중인 조회(CompletableFuture) 하나를 공유한다(single flight).
+ * 인기 게시글의 항목이 만료되어도 DB 조회는 한 번만 실행되고, 기다리던 요청은 모두 같은 결과 또는 같은 예외를 받는다.
+ *
+ * 게시글이 수정, 삭제되면 ArticleChangedEvent를 받아 해당 항목을 제거한다.
+ * 이벤트 발행 즉시 한 번, 트랜잭션이 끝난 뒤(commit/rollback) 다시 한 번 제거하므로,
+ * commit 전에 이전 내용을 읽기 시작한 조회가 있더라도 그 결과는 캐시에 남지 않고, commit 이후에는 새 내용이 조회된다.
+ * @author Jun Lee
+ */
+@Slf4j
+@Component
+public class ArticleCache {
+    private final AsyncCache<Long, ArticleResponseDto> cache;
+
+    public ArticleCache(
+            @Value("${blog.cache.article.maximum-size:10000}") long maximumSize,
+            @Value("${blog.cache.article.expire-after-write:10m}") Duration expireAfterWrite,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "article");
+    }
+
+    /**
+     * 캐시에 있으면 바로 반환하고, 없으면 loader로 읽어 보관한 뒤 반환한다.
+     * 같은 id에 대해 이미 진행 중인 조회가 있으면 loader를 실행하지 않고 그 조회가 끝나기를 기다려 같은 결과를 반환한다.
+     * loader가 null을 반환하거나 예외를 던지면 보관하지 않으며, 기다리던 요청 모두에게 null 또는 같은 예외가 전달된다.
+     * loader는 처음 조회를 시작한 요청의 스레드에서 실행된다.
+     * @author Jun Lee
+     */
+    public ArticleResponseDto get(Long articleId, Function<Long, ArticleResponseDto> loader) {
+        CompletableFuture<ArticleResponseDto> flight = new CompletableFuture<>();
+        CompletableFuture<ArticleResponseDto> shared = cache.get(articleId, (id, executor) -> flight);
+        if(shared == flight) {
+            try {
+                flight.complete(loader.apply(articleId));
+            }
+            catch (Throwable e) {
+                flight.completeExceptionally(e);
+            }
+        }
+        return join(shared);
+    }
+
+    public void invalidate(Iterable<Long> articleIds) {
+        cache.synchronous().invalidateAll(articleIds);
+    }
+
+    public long estimatedSize() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    // loader가 던진 예외를 CompletionException으로 감싸지 않고 그대로 다시 던진다.
+    private static ArticleResponseDto join(CompletableFuture<ArticleResponseDto> future) {
+        try {
+            return future.join();
+        }
+        catch (CompletionException e) {
+            if(e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if(e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @EventListener
+    public void evictOnChange(ArticleChangedEvent event) {
+        log.debug("ArticleCache, evict on change. {}", event);
+        invalidate(event.getArticleIds());
+    }
+
+    // 트랜잭션 밖에서 발행된 경우(fallbackExecution)에도 실행된다. 위 evictOnChange와 중복되지만 제거는 멱등하다.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void evictAfterCompletion(ArticleChangedEvent event) {
+        invalidate(event.getArticleIds());
+    }
+}
@@ -1,18 +1,30 @@
 package springproject.urssublog.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import springproject.urssublog.auth.LoginUser;
+import springproject.urssublog.counter.ArticleViewCounter;
 import springproject.urssublog.domain.Article;
 import springproject.urssublog.dto.article.ArticleRequestDto;
 import springproject.urssublog.dto.article.ArticleResponseDto;
+import springproject.urssublog.dto.article.ArticleSearchResponseDto;
+import springproject.urssublog.dto.article.ArticleStatsResponseDto;
+import springproject.urssublog.dto.article.ArticleSummaryResponseDto;
+import springproject.urssublog.dto.article.TrendingArticleResponseDto;
+import springproject.urssublog.dto.page.CursorPageResponseDto;
 import springproject.urssublog.exception.classes.BlogNotAuthorizedException;
 import springproject.urssublog.service.ArticleService;
 import springproject.urssublog.service.UserService;
+import springproject.urssublog.sketch.ArticleVisitorTracker;
+import springproject.urssublog.sketch.TrendingArticleTracker;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -20,6 +32,9 @@ import springproject.urssublog.service.UserService;
 public class ArticleController {
     private final UserService userService;
     private final ArticleService articleService;
+    private final ArticleViewCounter articleViewCounter;
+    private final TrendingArticleTracker trendingArticleTracker;
+    private final ArticleVisitorTracker articleVisitorTracker;
 
     /**
      * 게시글 작성
@@ -31,9 +46,9 @@ public class ArticleController {
             @Valid @RequestBody ArticleRequestDto requestDto,
             HttpServletRequest request
     ) {
-        HttpSession session = request.getSession(false);
-        Long userId = (Long)session.getAttribute("id");
-        String email = (String)session.getAttribute("email");
+        LoginUser loginUser = LoginUser.from(request);
+        Long userId = loginUser.getId();
+        String email = loginUser.getEmail();
 
         Article article = new Article(requestDto.getContent(), requestDto.getTitle());
         Long articleId = articleService.saveArticle(article, userId);
@@ -54,15 +69,14 @@ public class ArticleController {
                 @PathVariable("articleId") Long articleId,
             HttpServletRequest request
     ) {
-        HttpSession session = request.getSession(false);
-        Long userId = (Long)session.getAttribute("id");
-        String email = (String)session.getAttribute("email");
-
-        userService.checkIsArticleFromUser(articleId, userId);
+        LoginUser loginUser = LoginUser.from(request);
+        Long userId = loginUser.getId();
+        String email = loginUser.getEmail();
 
+        //수정과 소유 확인을 UPDATE 한 번으로 처리
         Article newArticle = new Article(requestDto.getContent(), requestDto.getTitle());
         newArticle.setId(articleId);
-        articleService.updateArticle(newArticle);
+        articleService.updateArticle(newArticle, userId);
 
         ArticleResponseDto responseDto = new ArticleResponseDto(articleId, email, newArticle.getTitle(), newArticle.getContent());
         log.debug("ArticleResponseDto, PUT method to /posts/{articleId}\n{}", responseDto.toString());
@@ -79,11 +93,107 @@ public class ArticleController {
             @PathVariable("articleId") Long articleId,
             HttpServletRequest request
     ) {
-        HttpSession session = request.getSession(false);
-        Long userId = (Long)session.getAttribute("id");
+        Long userId = LoginUser.from(request).getId();
 
         userService.checkIsArticleFromUser(articleId, userId);
 
         articleService.deleteArticle(articleId);
     }
+
+    /**
+     * 게시글 조회. 조회에 성공한 경우 조회수를 1 늘리고(DB에는 ArticleViewCounter가 모아서 반영), 인기 게시글 집계와 방문 회원 sketch에 기록한다.
+     * @author Jun Lee
+     */
+    @GetMapping("/posts/{articleId}")
+    @ResponseStatus(HttpStatus.OK)
+    public ArticleResponseDto findArticle(
+            @PathVariable("articleId") Long articleId,
+            HttpServletRequest request
+    ) {
+        ArticleResponseDto responseDto = articleService.findArticle(articleId);
+        articleViewCounter.increment(articleId);
+        trendingArticleTracker.recordView(articleId);
+        articleVisitorTracker.recordVisit(articleId, LoginUser.from(request).getId());
+        log.debug("ArticleResponseDto, GET method to /posts/{articleId}\n{}", responseDto);
+        return responseDto;
+    }
+
+    /**
+     * 게시글 검색. 제목, 본문 전문 검색(관련도 순)
+     * @author Jun Lee
+     */
+    @GetMapping("/posts/search")
+    @ResponseStatus(HttpStatus.OK)
+    public List<ArticleSearchResponseDto> searchArticles(
+            @RequestParam("q") String query,
+            @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        List<ArticleSearchResponseDto> responseDto = articleService.searchArticles(query, size);
+        log.debug("ArticleSearchResponseDto, GET method to /posts/search\n{}", responseDto);
+        return responseDto;
+    }
+
+    /**
+     * 게시글 통계 조회. 조회수, 댓글 수, 순 방문자 수(오늘, 최근 7일, 최근 30일) 추정값
+     * @author Jun Lee
+     */
+    @GetMapping("/posts/{articleId}/stats")
+    @ResponseStatus(HttpStatus.OK)
+    public ArticleStatsResponseDto findArticleStats(
+            @PathVariable("articleId") Long articleId
+    ) {
+        ArticleStatsResponseDto responseDto = articleService.findArticleStats(articleId);
+        log.debug("ArticleStatsResponseDto, GET method to /posts/{articleId}/stats\n{}", responseDto);
+        return responseDto;
+    }
+
+    /**
+     * 인기 게시글 조회. 최근 조회수와 댓글 수로 추정한 점수 순
+     * @author Jun Lee
+     */
+    @GetMapping("/posts/trending")
+    @ResponseStatus(HttpStatus.OK)
+    public List<TrendingArticleResponseDto> findTrendingArticles(
+            @RequestParam(value = "size", defaultValue = "10") int size
+    ) {
+        List<TrendingArticleResponseDto> responseDto = articleService.findTrendingArticles(size);
+        log.debug("TrendingArticleResponseDto, GET method to /posts/trending\n{}", responseDto);
+        return responseDto;
+    }
+
+    /**
+     * 게시글 목록 조회 (커서 기반 페이지네이션)
+     * @author Jun Lee
+     */
+    @GetMapping("/posts")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPageResponseDto<ArticleSummaryResponseDto> findArticles(
+            @RequestParam(value = "cursorTime", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorTime,
+            @RequestParam(value = "cursorId", required = false) Long cursorId,
+            @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        CursorPageResponseDto<ArticleSummaryResponseDto> responseDto = articleService.findArticles(cursorTime, cursorId, size);
+        log.debug("CursorPageResponseDto, GET method to /posts\n{}", responseDto);
+        return responseDto;
+    }
+
+    /**
+     * 회원별 게시글 목록 조회 (커서 기반 페이지네이션)
+     * @author Jun Lee
+     */
+    @GetMapping("/users/{userId}/posts")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPageResponseDto<ArticleSummaryResponseDto> findArticlesByUser(
+            @PathVariable("userId") Long userId,
+            @RequestParam(value = "cursorTime", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorTime,
+            @RequestParam(value = "cursorId", required = false) Long cursorId,
+            @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        CursorPageResponseDto<ArticleSummaryResponseDto> responseDto
+                = articleService.findArticlesByUser(userId, cursorTime, cursorId, size);
+        log.debug("CursorPageResponseDto, GET method to /users/{userId}/posts\n{}", responseDto);
+        return responseDto;
+    }
 }
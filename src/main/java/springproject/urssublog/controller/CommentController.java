@@ -1,21 +1,26 @@
 package springproject.urssublog.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import springproject.urssublog.auth.LoginUser;
 import springproject.urssublog.domain.Article;
 import springproject.urssublog.domain.Comment;
 import springproject.urssublog.dto.article.ArticleRequestDto;
 import springproject.urssublog.dto.article.ArticleResponseDto;
 import springproject.urssublog.dto.comment.CommentRequestDto;
 import springproject.urssublog.dto.comment.CommentResponseDto;
+import springproject.urssublog.dto.comment.CommentSummaryResponseDto;
+import springproject.urssublog.dto.page.CursorPageResponseDto;
 import springproject.urssublog.service.CommentService;
 import springproject.urssublog.service.UserService;
 
+import java.time.LocalDateTime;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
@@ -23,6 +28,25 @@ public class CommentController {
     private final UserService userService;
     private final CommentService commentService;
 
+    /**
+     * 게시글별 댓글 목록 조회 (커서 기반 페이지네이션)
+     * @author Jun Lee
+     */
+    @GetMapping("/posts/{articleId}/comments")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPageResponseDto<CommentSummaryResponseDto> findComments(
+            @PathVariable("articleId") Long articleId,
+            @RequestParam(value = "cursorTime", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorTime,
+            @RequestParam(value = "cursorId", required = false) Long cursorId,
+            @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        CursorPageResponseDto<CommentSummaryResponseDto> responseDto
+                = commentService.findComments(articleId, cursorTime, cursorId, size);
+        log.debug("CursorPageResponseDto, GET method to /posts/{articleId}/comments\n{}", responseDto);
+        return responseDto;
+    }
+
     /**
      * 댓글 작성
      * @author Jun Lee
@@ -35,9 +59,9 @@ public class CommentController {
             HttpServletRequest request
     ) {
         //세션에서 값 불러오기
-        HttpSession session = request.getSession(false);
-        Long userId = (Long)session.getAttribute("id");
-        String email = (String)session.getAttribute("email");
+        LoginUser loginUser = LoginUser.from(request);
+        Long userId = loginUser.getId();
+        String email = loginUser.getEmail();
 
         //해당 게시글이 현재 로그인 중인 사용자의 리소스인지 확인
         userService.checkIsArticleFromUser(articleId, userId);
@@ -64,17 +88,14 @@ public class CommentController {
             HttpServletRequest request
     ) {
         //세션에서 값 불러오기
-        HttpSession session = request.getSession(false);
-        Long userId = (Long)session.getAttribute("id");
-        String email = (String)session.getAttribute("email");
-
-        //해당 댓글이 현재 로그인 중인 사용자의 리소스인지 확인
-        userService.checkIsCommentFromUser(commentId, userId);
+        LoginUser loginUser = LoginUser.from(request);
+        Long userId = loginUser.getId();
+        String email = loginUser.getEmail();
 
-        //댓글 수정
+        //댓글 수정. 현재 로그인 중인 사용자의 리소스인지 확인도 UPDATE 한 번으로 처리
         Comment newComment = new Comment(requestDto.getContent());
         newComment.setId(commentId);
-        commentService.updateComment(newComment);
+        commentService.updateComment(newComment, userId);
 
         //응답 작성
         CommentResponseDto responseDto = new CommentResponseDto(commentId, email, newComment.getContent());
@@ -93,8 +114,7 @@ public class CommentController {
             HttpServletRequest request
     ) {
         //세션에서 값 불러오기
-        HttpSession session = request.getSession(false);
-        Long userId = (Long)session.getAttribute("id");
+        Long userId = LoginUser.from(request).getId();
 
         //해당 댓글이 현재 로그인 중인 사용자의 리소스인지 확인
         userService.checkIsCommentFromUser(commentId, userId);
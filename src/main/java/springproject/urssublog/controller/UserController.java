@@ -1,12 +1,15 @@
 package springproject.urssublog.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import springproject.urssublog.auth.LoginManager;
+import springproject.urssublog.auth.LoginRateLimiter;
+import springproject.urssublog.auth.LoginUser;
 import springproject.urssublog.domain.User;
 import springproject.urssublog.dto.comment.CommentResponseDto;
 import springproject.urssublog.dto.user.UserLoginRequestDto;
@@ -20,6 +23,8 @@ import springproject.urssublog.service.UserService;
 @RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
+    private final LoginManager loginManager;
+    private final LoginRateLimiter loginRateLimiter;
 
     /**
      * 회원가입
@@ -45,16 +50,17 @@ public class UserController {
     @PostMapping("/users/login")
     public UserResponseDto login(
             @Valid @RequestBody UserLoginRequestDto requestDto,
-            HttpServletRequest request
+            HttpServletRequest request,
+            HttpServletResponse response
             ) {
+        // 시도 수 제한을 넘은 경우 회원 조회, 비밀번호 확인 전에 거부
+        loginRateLimiter.checkLoginAttempt(request.getRemoteAddr(), requestDto.getEmail());
+
         User inputUser = new User(requestDto.getEmail(), requestDto.getPassword());
         User user = userService.userLoginCheck(inputUser);
 
-        // session 추가
-        HttpSession session = request.getSession(true);
-        session.setAttribute("id", user.getId());
-        session.setAttribute("email", user.getEmail());
-        session.setAttribute("username", user.getUsername());
+        // 로그인 상태 생성 (session 또는 token 발급)
+        loginManager.login(new LoginUser(user.getId(), user.getEmail(), user.getUsername()), request, response);
 
         UserResponseDto responseDto = new UserResponseDto(user.getEmail(), user.getUsername());
         log.debug("UserResponseDto, POST method to /users/login\n{}", responseDto.toString());
@@ -70,8 +76,7 @@ public class UserController {
     public void logout(
             HttpServletRequest request
     ) {
-        HttpSession session = request.getSession(false);
-        session.invalidate();
+        loginManager.logout(request);
     }
 
     /**
@@ -86,11 +91,10 @@ public class UserController {
     ) {
         log.debug("UserController, deleteUser() mapped to /users/{userId} called.");
 
-        HttpSession session = request.getSession(false);
-        if(!session.getAttribute("id").equals(Long.parseLong(userId))) {
+        if(!LoginUser.from(request).getId().equals(Long.parseLong(userId))) {
             throw new BlogNotAuthorizedException("다른 사용자의 계정은 삭제할 수 없습니다.");
         }
         userService.deleteUser(Long.parseLong(userId));
-        session.invalidate(); //로그인 정보 삭제
+        loginManager.logout(request); //로그인 정보 삭제
     }
 }
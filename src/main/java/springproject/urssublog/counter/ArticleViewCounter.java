@@ -0,0 +1,224 @@
+package springproject.urssublog.counter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 게시글 조회수 counter. 조회마다 article 행을 UPDATE하지 않고 메모리에 모아 두었다가 flush()에서 한 번에 반영한다.
+ *
+ * 1. 누적 : LongAdder처럼 여러 stripe에 나누어 누적한다. stripe는 스레드별로 고르므로, 같은 게시글(인기 게시글)의 조회가 동시에 몰려도
+ *    한 lock을 두고 경쟁하지 않는다. 같은 게시글의 조회수가 여러 stripe에 나뉘어 있을 수 있으며, flush 시 합산한다.
+ * 2. flush : 주기적으로 stripe를 비우고, 게시글 batchSize개마다 UPDATE ... SET view_count = view_count + CASE article_id ... END 한 번으로 반영한다.
+ *    반영에 실패한 조회수는 다시 누적해 다음 flush에서 반영한다. 종료 시(@PreDestroy) 남은 조회수를 반영한다.
+ * 3. 메모리 제한 : 아직 반영하지 않은 항목이 maxPendingKeys개를 넘으면 주기를 기다리지 않고 가상 스레드에서 바로 flush한다.
+ *
+ * 노드가 비정상 종료되면 마지막 flush 이후의 조회수는 유실된다.
+ * @author Jun Lee
+ */
+@Slf4j
+@Component
+public class ArticleViewCounter {
+    private static final String UPDATE_PREFIX = "UPDATE article SET view_count = view_count + CASE article_id";
+    private static final String UPDATE_CASE = " WHEN ? THEN ?";
+    private static final String UPDATE_WHERE = " ELSE 0 END WHERE article_id IN (";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxPendingKeys;
+    private final int batchSize;
+    private final Stripe[] stripes;
+    // 모든 stripe의 항목 수 합
+    private final AtomicInteger pendingKeys = new AtomicInteger();
+    private final AtomicBoolean earlyFlushRequested = new AtomicBoolean();
+    // flush는 한 번에 하나만 실행한다.
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Counter flushedViewsCounter;
+    private final Counter earlyFlushCounter;
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private HashMap<Long, long[]> counts = new HashMap<>();
+    }
+
+    public ArticleViewCounter(
+            JdbcTemplate jdbcTemplate,
+            @Value("${blog.article.view.max-pending-keys:10000}") int maxPendingKeys,
+            @Value("${blog.article.view.batch-size:500}") int batchSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxPendingKeys = maxPendingKeys;
+        this.batchSize = batchSize;
+
+        // 프로세서 수의 2배 이상인 2의 거듭제곱
+        int stripeCount = Integer.highestOneBit(Math.max(2, Runtime.getRuntime().availableProcessors() * 2) - 1) << 1;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+
+        this.flushedViewsCounter = Counter.builder("blog.article.views.flushed")
+                .description("Article views written to the database by ArticleViewCounter")
+                .register(meterRegistry);
+        this.earlyFlushCounter = Counter.builder("blog.article.views.early-flush")
+                .description("Flushes started before the interval because too many articles had pending views")
+                .register(meterRegistry);
+        Gauge.builder("blog.article.views.pending-keys", pendingKeys, AtomicInteger::get)
+                .description("Pending (article, stripe) entries not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 게시글의 조회수를 1 늘린다. DB에는 다음 flush에서 반영된다.
+     * @author Jun Lee
+     */
+    public void increment(Long articleId) {
+        add(articleId, 1);
+    }
+
+    private void add(Long articleId, long views) {
+        Stripe stripe = stripes[stripeIndex()];
+        boolean newKey;
+        stripe.lock.lock();
+        try {
+            long[] count = stripe.counts.get(articleId);
+            newKey = (count == null);
+            if(newKey) {
+                stripe.counts.put(articleId, new long[]{views});
+            }
+            else {
+                count[0] += views;
+            }
+        }
+        finally {
+            stripe.lock.unlock();
+        }
+        if(newKey && pendingKeys.incrementAndGet() > maxPendingKeys) {
+            requestEarlyFlush();
+        }
+    }
+
+    // 스레드 id를 섞어 stripe를 고른다. 같은 스레드는 항상 같은 stripe를 사용한다.
+    private int stripeIndex() {
+        long h = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (stripes.length - 1);
+    }
+
+    private void requestEarlyFlush() {
+        if(earlyFlushRequested.compareAndSet(false, true)) {
+            earlyFlushCounter.increment();
+            Thread.ofVirtual().name("article-view-early-flush").start(() -> {
+                try {
+                    flush();
+                }
+                finally {
+                    earlyFlushRequested.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * 모아 둔 조회수를 batch update로 DB에 반영하고, 반영한 게시글 수를 반환한다.
+     * @author Jun Lee
+     */
+    @Scheduled(fixedDelayString = "${blog.article.view.flush-interval:PT5S}")
+    public int flush() {
+        flushLock.lock();
+        try {
+            Map<Long, Long> views = drain();
+            if(views.isEmpty()) {
+                return 0;
+            }
+            List<Map.Entry<Long, Long>> entries = new ArrayList<>(views.entrySet());
+            int flushed = 0;
+            for (int from = 0; from < entries.size(); from += batchSize) {
+                List<Map.Entry<Long, Long>> batch = entries.subList(from, Math.min(from + batchSize, entries.size()));
+                try {
+                    jdbcTemplate.update(updateSql(batch.size()), updateArgs(batch));
+                    flushed += batch.size();
+                    flushedViewsCounter.increment(batch.stream().mapToLong(Map.Entry::getValue).sum());
+                }
+                catch (RuntimeException e) {
+                    log.warn("ArticleViewCounter, failed to flush views of {} articles. They will be retried.", batch.size(), e);
+                    batch.forEach(entry -> add(entry.getKey(), entry.getValue()));
+                }
+            }
+            log.debug("ArticleViewCounter, flushed views of {} articles.", flushed);
+            return flushed;
+        }
+        finally {
+            flushLock.unlock();
+        }
+    }
+
+    // stripe마다 누적 중인 map을 새 map으로 바꾸고, 가져온 조회수를 게시글별로 합산한다.
+    private Map<Long, Long> drain() {
+        Map<Long, Long> views = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            HashMap<Long, long[]> counts;
+            stripe.lock.lock();
+            try {
+                counts = stripe.counts;
+                if(counts.isEmpty()) {
+                    continue;
+                }
+                stripe.counts = new HashMap<>();
+            }
+            finally {
+                stripe.lock.unlock();
+            }
+            pendingKeys.addAndGet(-counts.size());
+            counts.forEach((articleId, count) -> views.merge(articleId, count[0], Long::sum));
+        }
+        return views;
+    }
+
+    private static String updateSql(int size) {
+        StringBuilder sql = new StringBuilder(UPDATE_PREFIX.length() + UPDATE_WHERE.length() + size * (UPDATE_CASE.length() + 2));
+        sql.append(UPDATE_PREFIX);
+        for (int i = 0; i < size; i++) {
+            sql.append(UPDATE_CASE);
+        }
+        sql.append(UPDATE_WHERE);
+        for (int i = 0; i < size; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(')').toString();
+    }
+
+    private static Object[] updateArgs(List<Map.Entry<Long, Long>> batch) {
+        Object[] args = new Object[batch.size() * 3];
+        int i = 0;
+        for (Map.Entry<Long, Long> entry : batch) {
+            args[i++] = entry.getKey();
+            args[i++] = entry.getValue();
+        }
+        for (Map.Entry<Long, Long> entry : batch) {
+            args[i++] = entry.getKey();
+        }
+        return args;
+    }
+
+    public int pendingKeyCount() {
+        return pendingKeys.get();
+    }
+
+    // 종료 시 남은 조회수를 반영한다.
+    @PreDestroy
+    public void destroy() {
+        flush();
+    }
+}
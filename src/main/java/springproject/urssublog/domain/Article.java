@@ -7,13 +7,19 @@ import lombok.Cleanup;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "article")
+@NamedEntityGraph(name = "Article.withUser", attributeNodes = @NamedAttributeNode("user"))
+@Table(name = "article", indexes = {
+        // 커서 기반 목록 조회((created_at, article_id) 역순 정렬)용 인덱스
+        @Index(name = "idx_article_created_at_id", columnList = "created_at, article_id"),
+        @Index(name = "idx_article_user_created_at_id", columnList = "user_id, created_at, article_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -34,7 +40,18 @@ public class Article {
     @Column(nullable = false, length = 255)
     private String title;
 
-    @ManyToOne
+    // 댓글 수. 목록 조회 시 comments 컬렉션이나 COUNT 없이 사용한다.
+    // 엔티티 수정(dirty checking)으로는 변경되지 않고, JpaArticleRepository의 UPDATE ... SET comment_count = comment_count ± n 으로만 변경된다.
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private int commentCount;
+
+    // 조회수. ArticleViewCounter가 메모리에 모아 둔 조회수를 batch update로 반영하며, comment_count와 마찬가지로 엔티티 수정으로는 변경되지 않는다.
+    @Column(name = "view_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long viewCount;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -0,0 +1,30 @@
+package springproject.urssublog.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// 게시글 등록, 수정, 삭제 기록. 게시글을 변경하는 트랜잭션 안에서 추가되며, 모든 노드가 changed_at 순으로 읽어 자신의 검색 색인에 반영한다.
+// 게시글이 삭제된 뒤에도 남아야 하므로 article에 대한 FK를 두지 않는다. 보관 기간이 지난 행은 주기적으로 삭제한다. (ArticleSearchIndexer)
+@Entity
+@Table(name = "article_change", indexes = {
+        @Index(name = "idx_article_change_changed_at_id", columnList = "changed_at, article_change_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class ArticleChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "article_change_id")
+    private Long id;
+
+    @Column(name = "article_id", nullable = false)
+    private Long articleId;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
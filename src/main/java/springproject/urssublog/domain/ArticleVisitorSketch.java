@@ -0,0 +1,42 @@
+package springproject.urssublog.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+// 게시글별, 날짜별 방문 회원 HyperLogLog sketch. registers는 HyperLogLog.toBytes()로 직렬화한 값이다.
+// 여러 노드가 같은 행을 병합할 수 있으므로 version으로 동시 수정을 감지한다.
+@Entity
+@Table(name = "article_visitor_sketch", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_article_visitor_sketch_article_date", columnNames = {"article_id", "visit_date"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class ArticleVisitorSketch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "article_visitor_sketch_id")
+    private Long id;
+
+    @Column(name = "article_id", nullable = false)
+    private Long articleId;
+
+    @Column(name = "visit_date", nullable = false)
+    private LocalDate visitDate;
+
+    @Lob
+    @Column(name = "registers", nullable = false, columnDefinition = "blob")
+    private byte[] registers;
+
+    @Version
+    private Long version;
+
+    public ArticleVisitorSketch(Long articleId, LocalDate visitDate) {
+        this.articleId = articleId;
+        this.visitDate = visitDate;
+    }
+}
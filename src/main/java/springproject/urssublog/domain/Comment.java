@@ -11,7 +11,16 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "comment")
+@NamedEntityGraph(name = "Comment.withUserAndArticle", attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("article")
+})
+@Table(name = "comment", indexes = {
+        // 게시글별 커서 기반 댓글 목록 조회((created_at, comment_id) 순 정렬)용 인덱스
+        @Index(name = "idx_comment_article_created_at_id", columnList = "article_id, created_at, comment_id"),
+        // 최근 댓글 작성 시간 순 조회(TrendingArticleTracker 복원)용 인덱스
+        @Index(name = "idx_comment_created_at_id", columnList = "created_at, comment_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,11 +38,11 @@ public class Comment {
     @Column(nullable = false, length = 255)
     private String content;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "article_id")
     private Article article;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -0,0 +1,7 @@
+package springproject.urssublog.dto.article;
+
+import java.time.LocalDateTime;
+
+// 게시글 변경 기록(article_change)의 id, 게시글 id, 변경 시간. (ArticleSearchIndexer에서 다른 노드의 변경을 읽을 때 사용)
+public record ArticleChangeDto(Long id, Long articleId, LocalDateTime changedAt) {
+}
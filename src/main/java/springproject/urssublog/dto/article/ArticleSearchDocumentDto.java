@@ -0,0 +1,5 @@
+package springproject.urssublog.dto.article;
+
+// 검색 색인에 필요한 게시글 값(id, 제목, 본문)만 조회할 때 사용한다. (ArticleSearchIndexer)
+public record ArticleSearchDocumentDto(Long id, String title, String content) {
+}
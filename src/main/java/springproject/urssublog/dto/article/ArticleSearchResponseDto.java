@@ -0,0 +1,26 @@
+package springproject.urssublog.dto.article;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 게시글 검색 결과. score는 검색 색인(Lucene BM25)의 관련도 점수이다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class ArticleSearchResponseDto {
+    private Long articleId;
+    private String title;
+    private float score;
+
+    @Override
+    public String toString() {
+        return "-----------------------------------------------" +
+                "\narticleId : " + articleId.toString() +
+                "\ntitle : " + title +
+                "\nscore : " + score +
+                "\n-----------------------------------------------";
+    }
+}
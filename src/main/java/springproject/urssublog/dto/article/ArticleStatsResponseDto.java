@@ -0,0 +1,32 @@
+package springproject.urssublog.dto.article;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 게시글 통계 응답. 방문자 수는 로그인한 회원 기준 순 방문자 수의 추정값(HyperLogLog)이며, 조회수는 아직 반영되지 않은 조회를 포함하지 않는다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class ArticleStatsResponseDto {
+    private Long articleId;
+    private long viewCount;
+    private int commentCount;
+    private long visitorsToday;
+    private long visitorsLast7Days;
+    private long visitorsLast30Days;
+
+    @Override
+    public String toString() {
+        return "-----------------------------------------------" +
+                "\narticleId : " + articleId.toString() +
+                "\nviewCount : " + viewCount +
+                "\ncommentCount : " + commentCount +
+                "\nvisitorsToday : " + visitorsToday +
+                "\nvisitorsLast7Days : " + visitorsLast7Days +
+                "\nvisitorsLast30Days : " + visitorsLast30Days +
+                "\n-----------------------------------------------";
+    }
+}
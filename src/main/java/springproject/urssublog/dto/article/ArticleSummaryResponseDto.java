@@ -0,0 +1,35 @@
+package springproject.urssublog.dto.article;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 게시글 목록 조회용 projection. Article 엔티티(및 comments 컬렉션) 대신 JPQL 생성자 표현식으로 바로 생성된다.
+ * 본문 전체 대신 앞부분(JpaArticleRepository.PREVIEW_LENGTH자)만 preview로 담는다. 본문은 게시글 조회(/posts/{articleId})로 확인한다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class ArticleSummaryResponseDto {
+    private Long articleId;
+    private String email;
+    private String title;
+    private String preview;
+    private LocalDateTime createdTime;
+    private int commentCount;
+
+    @Override
+    public String toString() {
+        return "-----------------------------------------------" +
+                "\narticleId : " + articleId.toString() +
+                "\nemail : " + email +
+                "\ntitle : " + title +
+                "\npreview : " + preview +
+                "\ncreatedTime : " + createdTime +
+                "\ncommentCount : " + commentCount +
+                "\n-----------------------------------------------";
+    }
+}
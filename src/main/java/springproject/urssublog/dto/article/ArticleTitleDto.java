@@ -0,0 +1,5 @@
+package springproject.urssublog.dto.article;
+
+// 게시글 id와 현재 제목. (검색 결과를 DB의 현재 값으로 확인할 때 사용)
+public record ArticleTitleDto(Long id, String title) {
+}
@@ -0,0 +1,28 @@
+package springproject.urssublog.dto.article;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 인기 게시글 조회 응답. score는 최근 조회수와 댓글 수에 시간 감쇠를 적용한 추정 점수이다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class TrendingArticleResponseDto {
+    private Long articleId;
+    private String email;
+    private String title;
+    private double score;
+
+    @Override
+    public String toString() {
+        return "-----------------------------------------------" +
+                "\narticleId : " + articleId.toString() +
+                "\nemail : " + email +
+                "\ntitle : " + title +
+                "\nscore : " + score +
+                "\n-----------------------------------------------";
+    }
+}
@@ -0,0 +1,7 @@
+package springproject.urssublog.dto.comment;
+
+import java.time.LocalDateTime;
+
+// 댓글이 달린 게시글과 작성 시간만 조회할 때 사용한다. (TrendingArticleTracker 복원)
+public record CommentActivityDto(Long id, Long articleId, LocalDateTime createdTime) {
+}
@@ -0,0 +1,30 @@
+package springproject.urssublog.dto.comment;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 게시글별 댓글 목록 조회용 projection. JPQL 생성자 표현식으로 바로 생성된다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class CommentSummaryResponseDto {
+    private Long commentId;
+    private String email;
+    private String content;
+    private LocalDateTime createdTime;
+
+    @Override
+    public String toString() {
+        return "-----------------------------------------------" +
+                "\ncommentId : " + commentId.toString() +
+                "\nemail : " + email +
+                "\ncontent : " + content +
+                "\ncreatedTime : " + createdTime +
+                "\n-----------------------------------------------";
+    }
+}
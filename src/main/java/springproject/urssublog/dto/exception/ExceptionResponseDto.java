@@ -5,6 +5,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 @Getter
 @Setter
 @AllArgsConstructor
@@ -15,6 +17,11 @@ public class ExceptionResponseDto {
     private String message;
     private String requestURI;
 
+    // 응답의 time 값. (LocalDateTime.toString() 형식, 시스템 시계의 정밀도 그대로)
+    public static String currentTime() {
+        return LocalDateTime.now().toString();
+    }
+
     @Override
     public String toString() {
         return "-----------------------------------------------\n" +
@@ -0,0 +1,51 @@
+package springproject.urssublog.dto.page;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * (created_at, id) 커서 기반 페이지 응답.
+ * 다음 페이지는 nextCursorTime, nextCursorId를 그대로 다음 요청의 cursorTime, cursorId로 넘겨 조회한다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class CursorPageResponseDto<T> {
+    private List<T> content;
+    private boolean hasNext;
+    private LocalDateTime nextCursorTime;
+    private Long nextCursorId;
+
+    /**
+     * size + 1개까지 조회한 결과를 받아 페이지를 구성한다. size를 넘는 행이 있으면 다음 페이지가 있는 것으로 본다.
+     */
+    public static <T> CursorPageResponseDto<T> of(
+            List<T> rows,
+            int size,
+            Function<T, LocalDateTime> cursorTimeOf,
+            Function<T, Long> cursorIdOf
+    ) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        if(content.isEmpty()) {
+            return new CursorPageResponseDto<>(content, false, null, null);
+        }
+        T last = content.get(content.size() - 1);
+        return new CursorPageResponseDto<>(content, hasNext, cursorTimeOf.apply(last), cursorIdOf.apply(last));
+    }
+
+    @Override
+    public String toString() {
+        return "-----------------------------------------------" +
+                "\nsize : " + content.size() +
+                "\nhasNext : " + hasNext +
+                "\nnextCursorTime : " + nextCursorTime +
+                "\nnextCursorId : " + nextCursorId +
+                "\n-----------------------------------------------";
+    }
+}
@@ -0,0 +1,5 @@
+package springproject.urssublog.dto.user;
+
+// 회원의 고유 값(email, username)만 조회할 때 사용한다. (UserIdentityBloomFilter 생성)
+public record UserIdentityDto(Long id, String email, String username) {
+}
@@ -0,0 +1,39 @@
+package springproject.urssublog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 게시글이 등록, 수정, 삭제되었을 때 발행되는 이벤트. 게시글 조회 캐시, 검색 색인 등 게시글의 사본을 가진 곳에서 이를 받아 갱신한다.
+ * 회원 탈퇴처럼 여러 게시글이 한 번에 삭제되는 경우 id 목록 하나로 발행한다.
+ * @author Jun Lee
+ */
+@Getter
+@AllArgsConstructor
+public class ArticleChangedEvent {
+    private final List<Long> articleIds;
+    private final ChangeType changeType;
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static ArticleChangedEvent created(List<Long> articleIds) {
+        return new ArticleChangedEvent(List.copyOf(articleIds), ChangeType.CREATED);
+    }
+
+    public static ArticleChangedEvent updated(Long articleId) {
+        return new ArticleChangedEvent(List.of(articleId), ChangeType.UPDATED);
+    }
+
+    public static ArticleChangedEvent deleted(List<Long> articleIds) {
+        return new ArticleChangedEvent(List.copyOf(articleIds), ChangeType.DELETED);
+    }
+
+    @Override
+    public String toString() {
+        return "ArticleChangedEvent(changeType=" + changeType + ", articleIds=" + articleIds + ")";
+    }
+}
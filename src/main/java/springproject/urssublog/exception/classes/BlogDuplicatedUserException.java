@@ -0,0 +1,7 @@
+package springproject.urssublog.exception.classes;
+
+public class BlogDuplicatedUserException extends BlogException {
+    public BlogDuplicatedUserException(String message) {
+        super(message);
+    }
+}
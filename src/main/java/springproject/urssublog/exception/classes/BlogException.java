@@ -1,7 +1,15 @@
 package springproject.urssublog.exception.classes;
 
+/**
+ * 서비스의 예외. 게시글 없음, 권한 없음, 로그인 실패 등 요청 처리 흐름에서 자주 발생하고, 모두 UnitedExceptionHandlingClass에서 응답으로 변환된다.
+ * 응답에는 stack trace가 필요 없으므로 기본으로 stack trace를 채우지 않는다.
+ * 디버깅 등으로 필요하면 JVM 시작 시 -Dblog.exception.stack-trace=true 로 지정한다. 값은 클래스 로딩 시 한 번만 읽으므로 실행 중에는 바뀌지 않는다.
+ * @author Jun Lee
+ */
 public abstract class BlogException extends RuntimeException {
+    private static final boolean STACK_TRACE_ENABLED = Boolean.getBoolean("blog.exception.stack-trace");
+
     public BlogException(String message) {
-        super(message);
+        super(message, null, false, STACK_TRACE_ENABLED);
     }
 }
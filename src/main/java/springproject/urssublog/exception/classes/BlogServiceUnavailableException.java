@@ -0,0 +1,7 @@
+package springproject.urssublog.exception.classes;
+
+public class BlogServiceUnavailableException extends BlogException {
+    public BlogServiceUnavailableException(String message) {
+        super(message);
+    }
+}
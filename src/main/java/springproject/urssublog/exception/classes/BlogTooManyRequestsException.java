@@ -0,0 +1,14 @@
+package springproject.urssublog.exception.classes;
+
+import lombok.Getter;
+
+@Getter
+public class BlogTooManyRequestsException extends BlogException {
+    // 다시 시도할 수 있을 때까지의 시간(초). 응답의 Retry-After header로 사용한다.
+    private final long retryAfterSeconds;
+
+    public BlogTooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
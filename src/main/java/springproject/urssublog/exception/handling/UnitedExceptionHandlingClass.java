@@ -1,24 +1,44 @@
 package springproject.urssublog.exception.handling;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import springproject.urssublog.dto.exception.ExceptionResponseDto;
+import springproject.urssublog.exception.classes.BlogDuplicatedUserException;
 import springproject.urssublog.exception.classes.BlogNotAuthorizedException;
 import springproject.urssublog.exception.classes.BlogResourceNotFoundException;
+import springproject.urssublog.exception.classes.BlogServiceUnavailableException;
+import springproject.urssublog.exception.classes.BlogTooManyRequestsException;
 import springproject.urssublog.exception.classes.BlogUserNotFoundException;
 
-import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @RestControllerAdvice
-
+@RequiredArgsConstructor
 public class UnitedExceptionHandlingClass {
+    // 응답의 status 문자열. HttpStatus.toString()은 호출마다 새 문자열을 만든다.
+    private static final String STATUS_BAD_REQUEST = HttpStatus.BAD_REQUEST.toString();
+    private static final String STATUS_NOT_FOUND = HttpStatus.NOT_FOUND.toString();
+    private static final String STATUS_TOO_MANY_REQUESTS = HttpStatus.TOO_MANY_REQUESTS.toString();
+    private static final String STATUS_SERVICE_UNAVAILABLE = HttpStatus.SERVICE_UNAVAILABLE.toString();
+    private static final String DATA_INTEGRITY_VIOLATION_MESSAGE = "데이터베이스 무결성 위반. 중복된 email 또는 username을 사용했을 수 있습니다.";
+
+    private final MeterRegistry meterRegistry;
+    // 예외 타입별 blog.exceptions counter. 처리할 때마다 registry에서 다시 찾지 않는다. (예외 타입마다 응답 status는 하나)
+    private final Map<Class<?>, Counter> exceptionCounters = new ConcurrentHashMap<>();
+
     /**
      * 회원가입 정보(email, username)가 겹치는 경우에 발생하는 DataIntegrityViolationException 처리.
      * @author Jun Lee
@@ -29,13 +49,28 @@ public class UnitedExceptionHandlingClass {
             DataIntegrityViolationException e,
             HttpServletRequest request
     ) {
-        ExceptionResponseDto responseClass = new ExceptionResponseDto();
-        responseClass.setTime(LocalDateTime.now().toString());
-        responseClass.setStatus(HttpStatus.BAD_REQUEST.toString());
-        responseClass.setMessage("데이터베이스 무결성 위반. 중복된 email 또는 username을 사용했을 수 있습니다.");
-        responseClass.setRequestURI(request.getRequestURI());
+        ExceptionResponseDto responseClass = exceptionResponse(STATUS_BAD_REQUEST, DATA_INTEGRITY_VIOLATION_MESSAGE, request);
+
+        log.debug("UnitedExceptionHandlingClass, Exception response.\n{}", responseClass);
+        countException(e, responseClass);
+
+        return responseClass;
+    }
+
+    /**
+     * 회원가입 시 이미 사용 중인 email 또는 username인 경우에 발생하는 BlogDuplicatedUserException 처리.
+     * @author Jun Lee
+     */
+    @ExceptionHandler(BlogDuplicatedUserException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ExceptionResponseDto handleBlogDuplicatedUserException(
+            BlogDuplicatedUserException e,
+            HttpServletRequest request
+    ) {
+        ExceptionResponseDto responseClass = exceptionResponse(STATUS_BAD_REQUEST, e.getMessage(), request);
 
-        log.debug("UnitedExceptionHandlingClass, Exception response.\n{}", responseClass.toString());
+        log.debug("UnitedExceptionHandlingClass, Exception response.\n{}", responseClass);
+        countException(e, responseClass);
 
         return responseClass;
     }
@@ -55,13 +90,10 @@ public class UnitedExceptionHandlingClass {
             rst.append(error.getDefaultMessage());
         });
 
-        ExceptionResponseDto responseClass = new ExceptionResponseDto();
-        responseClass.setTime(LocalDateTime.now().toString());
-        responseClass.setStatus(HttpStatus.BAD_REQUEST.toString());
-        responseClass.setMessage(rst.toString());
-        responseClass.setRequestURI(request.getRequestURI());
+        ExceptionResponseDto responseClass = exceptionResponse(STATUS_BAD_REQUEST, rst.toString(), request);
 
-        log.debug("UnitedExceptionHandlingClass, Exception response.\n{}", responseClass.toString());
+        log.debug("UnitedExceptionHandlingClass, Exception response.\n{}", responseClass);
+        countException(e, responseClass);
 
         return responseClass;
     }
@@ -76,13 +108,10 @@ public class UnitedExceptionHandlingClass {
             BlogUserNotFoundException e,
             HttpServletRequest request
     ) {
-        ExceptionResponseDto responseClass = new ExceptionResponseDto();
-        responseClass.setTime(LocalDateTime.now().toString());
-        responseClass.setStatus(HttpStatus.NOT_FOUND.toString());
-        responseClass.setMessage(e.getMessage());
-        responseClass.setRequestURI(request.getRequestURI());
+        ExceptionResponseDto responseClass = exceptionResponse(STATUS_NOT_FOUND, e.getMessage(), request);
 
-        log.debug("UnitedExceptionHandlingClass, Exception response.\n{}", responseClass.toString());
+        log.debug("UnitedExceptionHandlingClass, Exception response.\n{}", responseClass);
+        countException(e, responseClass);
 
         return responseClass;
     }
@@ -98,13 +127,10 @@ public class UnitedExceptionHandlingClass {
             BlogResourceNotFoundException e,
             HttpServletRequest request
     ) {
-        ExceptionResponseDto responseClass = new ExceptionResponseDto();
-        responseClass.setTime(LocalDateTime.now().toString());
-        responseClass.setStatus(HttpStatus.NOT_FOUND.toString());
-        responseClass.setMessage(e.getMessage());
-        responseClass.setRequestURI(request.getRequestURI());
+        ExceptionResponseDto responseClass = exceptionResponse(STATUS_NOT_FOUND, e.getMessage(), request);
 
-        log.debug("UnitedExceptionHandlingClass, Exception response.\n{}", responseClass.toString());
+        log.debug("UnitedExceptionHandlingClass, Exception response.\n{}", responseClass);
+        countException(e, responseClass);
 
         return responseClass;
     }
@@ -119,14 +145,62 @@ public class UnitedExceptionHandlingClass {
             BlogNotAuthorizedException e,
             HttpServletRequest request
     ) {
-        ExceptionResponseDto responseClass = new ExceptionResponseDto();
-        responseClass.setTime(LocalDateTime.now().toString());
-        responseClass.setStatus(HttpStatus.BAD_REQUEST.toString());
-        responseClass.setMessage(e.getMessage());
-        responseClass.setRequestURI(request.getRequestURI());
+        ExceptionResponseDto responseClass = exceptionResponse(STATUS_BAD_REQUEST, e.getMessage(), request);
+
+        log.debug("UnitedExceptionHandlingClass, Exception response.\n{}", responseClass);
+        countException(e, responseClass);
+
+        return responseClass;
+    }
+
+    /**
+     * 비밀번호 해시 대기열이 가득 찬 경우 등, 서버가 일시적으로 요청을 처리할 수 없는 경우에 발생하는 BlogServiceUnavailableException 처리.
+     * @author Jun Lee
+     */
+    @ExceptionHandler(BlogServiceUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ExceptionResponseDto handleBlogServiceUnavailableException(
+            BlogServiceUnavailableException e,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
+        ExceptionResponseDto responseClass = exceptionResponse(STATUS_SERVICE_UNAVAILABLE, e.getMessage(), request);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+
+        log.debug("UnitedExceptionHandlingClass, Exception response.\n{}", responseClass);
+        countException(e, responseClass);
+
+        return responseClass;
+    }
+
+    /**
+     * 로그인 시도 수 제한을 넘은 경우에 발생하는 BlogTooManyRequestsException 처리.
+     * @author Jun Lee
+     */
+    @ExceptionHandler(BlogTooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ExceptionResponseDto handleBlogTooManyRequestsException(
+            BlogTooManyRequestsException e,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
+        ExceptionResponseDto responseClass = exceptionResponse(STATUS_TOO_MANY_REQUESTS, e.getMessage(), request);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()));
 
-        log.debug("UnitedExceptionHandlingClass, Exception response.\n{}", responseClass.toString());
+        log.debug("UnitedExceptionHandlingClass, Exception response.\n{}", responseClass);
+        countException(e, responseClass);
 
         return responseClass;
     }
+
+    private static ExceptionResponseDto exceptionResponse(String status, String message, HttpServletRequest request) {
+        return new ExceptionResponseDto(ExceptionResponseDto.currentTime(), status, message, request.getRequestURI());
+    }
+
+    // 처리한 예외를 예외 타입, 응답 status별로 센다.
+    private void countException(Exception e, ExceptionResponseDto responseClass) {
+        exceptionCounters.computeIfAbsent(e.getClass(), exceptionClass -> meterRegistry.counter("blog.exceptions",
+                "exception", exceptionClass.getSimpleName(),
+                "status", responseClass.getStatus())).increment();
+    }
 }
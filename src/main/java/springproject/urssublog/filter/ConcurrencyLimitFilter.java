@@ -0,0 +1,88 @@
+package springproject.urssublog.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import springproject.urssublog.dto.exception.ExceptionResponseDto;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동시에 처리 중인 요청 수를 제한하는 filter.
+ * 가상 스레드 모드에서는 요청 스레드 수가 제한되지 않으므로, DB connection pool 크기만큼만 요청을 처리하고
+ * 나머지는 acquireTimeout 동안 대기시킨다. 그 안에 처리를 시작하지 못한 요청은 connection 대기열에 쌓이지 않고 바로 503으로 응답한다.
+ * @author Jun Lee
+ */
+@Slf4j
+public class ConcurrencyLimitFilter implements Filter {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    public ConcurrencyLimitFilter(int maxInFlight, Duration acquireTimeout) {
+        if(maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive : " + maxInFlight);
+        }
+        this.permits = new Semaphore(maxInFlight);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+
+        if(!tryAcquire()) {
+            writeOverloadedResponse(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        }
+        finally {
+            permits.release();
+        }
+    }
+
+    // 현재 처리를 기다리지 않고 사용할 수 있는 permit 수
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private boolean tryAcquire() {
+        try {
+            return permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void writeOverloadedResponse(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ExceptionResponseDto responseDto = new ExceptionResponseDto(
+                ExceptionResponseDto.currentTime(),
+                HttpStatus.SERVICE_UNAVAILABLE.toString(),
+                "요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요.",
+                request.getRequestURI()
+        );
+        if(log.isDebugEnabled()) {
+            log.debug("ConcurrencyLimitFilter, request rejected.\n{}", responseDto.toString());
+        }
+
+        byte[] body = OBJECT_MAPPER.writeValueAsBytes(responseDto);
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", "1");
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -1,54 +1,113 @@
 package springproject.urssublog.filter;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import springproject.urssublog.auth.LoginManager;
+import springproject.urssublog.auth.LoginUser;
 import springproject.urssublog.dto.exception.ExceptionResponseDto;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 public class LoginCheckFilter implements Filter {
-    private final String[] accessibleUri = {"/users", "/users/login"};
+    private static final Set<String> ACCESSIBLE_URIS = Set.of("/users", "/users/login");
+
+    // 로그인 중이 아닌 경우의 응답. ExceptionResponseDto를 한 번만 직렬화해 time, requestURI 앞뒤의 고정 부분을 byte 배열로 보관한다.
+    private static final String TIME_MARKER = "__TIME__";
+    private static final String URI_MARKER = "__URI__";
+    private static final byte[] BEFORE_TIME;
+    private static final byte[] BETWEEN_TIME_AND_URI;
+    private static final byte[] AFTER_URI;
+
+    static {
+        String template;
+        try {
+            template = new ObjectMapper().writeValueAsString(new ExceptionResponseDto(
+                    TIME_MARKER,
+                    "400 BAD_REQUEST",
+                    "로그인 중이 아닙니다.",
+                    URI_MARKER
+            ));
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalStateException("LoginCheckFilter, failed to build response template", e);
+        }
+        int timeIndex = template.indexOf(TIME_MARKER);
+        int uriIndex = template.indexOf(URI_MARKER);
+        BEFORE_TIME = template.substring(0, timeIndex).getBytes(StandardCharsets.UTF_8);
+        BETWEEN_TIME_AND_URI = template.substring(timeIndex + TIME_MARKER.length(), uriIndex).getBytes(StandardCharsets.UTF_8);
+        AFTER_URI = template.substring(uriIndex + URI_MARKER.length()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private final LoginManager loginManager;
+
+    // 로그인 검사에 걸린 시간. 이후 filter chain의 처리 시간은 포함하지 않는다.
+    private final Timer passedTimer;
+    private final Timer rejectedTimer;
+
+    public LoginCheckFilter(LoginManager loginManager, MeterRegistry meterRegistry) {
+        this.loginManager = loginManager;
+        this.passedTimer = loginCheckTimer(meterRegistry, "passed");
+        this.rejectedTimer = loginCheckTimer(meterRegistry, "rejected");
+    }
+
+    private static Timer loginCheckTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("blog.filter.login-check")
+                .description("LoginCheckFilter processing time, excluding the rest of the filter chain")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
         HttpServletRequest request = (HttpServletRequest) servletRequest;
         HttpServletResponse response = (HttpServletResponse) servletResponse;
+        long start = System.nanoTime();
         String requestUri = request.getRequestURI();
 
-        //로그인 중인지 검사
-        if((!isAccessibleUri(requestUri)) && (request.getSession(false) == null)) {
-            ExceptionResponseDto responseDto = new ExceptionResponseDto(
-                    LocalDateTime.now().toString(),
-                    "400 BAD_REQUEST",
-                    "로그인 중이 아닙니다.",
-                    requestUri
-            );
-            log.debug("LoginCheckFilter, no login status\n{}", responseDto.toString());
-
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.registerModule(new JavaTimeModule());
-
-            response.setStatus(400);
-            response.setContentType("application/json");
-            response.setCharacterEncoding("UTF-8");
-            response.getWriter().write(objectMapper.writeValueAsString(responseDto));
-            return;
+        //로그인 중인지 검사. 로그인 중이면 controller에서 사용할 수 있도록 LoginUser를 request attribute로 저장한다.
+        if(!ACCESSIBLE_URIS.contains(requestUri)) {
+            LoginUser loginUser = loginManager.authenticate(request);
+            if(loginUser == null) {
+                writeNoLoginResponse(response, requestUri);
+                rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return;
+            }
+            request.setAttribute(LoginUser.REQUEST_ATTRIBUTE, loginUser);
         }
+        passedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         filterChain.doFilter(request, response);
     }
 
-    private boolean isAccessibleUri(String requestUri) {
-        for(String s : accessibleUri) {
-            if(s.equals(requestUri)) {
-                return true;
-            }
+    // 고정 부분은 미리 인코딩된 byte 배열을 그대로 쓰고, time과 (JSON escape된) requestURI만 요청마다 인코딩한다.
+    private void writeNoLoginResponse(HttpServletResponse response, String requestUri) throws IOException {
+        byte[] time = ExceptionResponseDto.currentTime().getBytes(StandardCharsets.US_ASCII);
+        byte[] uri = JsonStringEncoder.getInstance().quoteAsUTF8(requestUri);
+        if(log.isDebugEnabled()) {
+            log.debug("LoginCheckFilter, no login status. requestURI={}", requestUri);
         }
-        return false;
+
+        response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setContentLength(BEFORE_TIME.length + time.length + BETWEEN_TIME_AND_URI.length + uri.length + AFTER_URI.length);
+
+        ServletOutputStream out = response.getOutputStream();
+        out.write(BEFORE_TIME);
+        out.write(time);
+        out.write(BETWEEN_TIME_AND_URI);
+        out.write(uri);
+        out.write(AFTER_URI);
     }
-}
\ No newline at end of file
+}
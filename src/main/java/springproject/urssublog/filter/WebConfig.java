@@ -1,18 +1,38 @@
 package springproject.urssublog.filter;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.Filter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import springproject.urssublog.auth.LoginManager;
+
+import java.time.Duration;
 
 @Configuration
 public class WebConfig {
     @Bean
-    public FilterRegistrationBean<Filter> loginCheckFilter() {
+    public FilterRegistrationBean<Filter> loginCheckFilter(LoginManager loginManager, MeterRegistry meterRegistry) {
         FilterRegistrationBean<Filter> filterRegistrationBean = new FilterRegistrationBean<>();
-        filterRegistrationBean.setFilter(new LoginCheckFilter());
+        filterRegistrationBean.setFilter(new LoginCheckFilter(loginManager, meterRegistry));
         filterRegistrationBean.setOrder(1);
         filterRegistrationBean.addUrlPatterns("/*");
         return filterRegistrationBean;
     }
+
+    // 로그인 검사를 통과한 요청에만 permit을 사용하도록 login check filter 다음에 실행한다.
+    @Bean
+    @ConditionalOnProperty(name = "blog.concurrency-limit.enabled", havingValue = "true")
+    public FilterRegistrationBean<Filter> concurrencyLimitFilter(
+            @Value("${blog.concurrency-limit.max-in-flight:${spring.datasource.hikari.maximum-pool-size:10}}") int maxInFlight,
+            @Value("${blog.concurrency-limit.acquire-timeout:500ms}") Duration acquireTimeout
+    ) {
+        FilterRegistrationBean<Filter> filterRegistrationBean = new FilterRegistrationBean<>();
+        filterRegistrationBean.setFilter(new ConcurrencyLimitFilter(maxInFlight, acquireTimeout));
+        filterRegistrationBean.setOrder(2);
+        filterRegistrationBean.addUrlPatterns("/*");
+        return filterRegistrationBean;
+    }
 }
@@ -0,0 +1,49 @@
+package springproject.urssublog.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * second-level-cache 프로필에서 User 2차 캐시와 query cache의 누적 hit ratio를 blog.cache.hibernate.hit.ratio로 노출한다.
+ * 요청 수 자체는 hibernate-micrometer의 hibernate.second.level.cache.requests, hibernate.cache.query.requests로 확인할 수 있다.
+ * @author Jun Lee
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics implements MeterBinder {
+    private static final String USER_REGION = "user";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Gauge.builder("blog.cache.hibernate.hit.ratio", statistics, s -> {
+                    CacheRegionStatistics region = s.getDomainDataRegionStatistics(USER_REGION);
+                    return ratio(region.getHitCount(), region.getMissCount());
+                })
+                .description("Hit ratio of the User second-level cache region")
+                .tag("region", USER_REGION)
+                .register(registry);
+        Gauge.builder("blog.cache.hibernate.hit.ratio", statistics,
+                        s -> ratio(s.getQueryCacheHitCount(), s.getQueryCacheMissCount()))
+                .description("Hit ratio of the query cache (findByEmail)")
+                .tag("region", "query")
+                .register(registry);
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return (total == 0 ? 0.0 : (double) hits / total);
+    }
+}
@@ -0,0 +1,32 @@
+package springproject.urssublog.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate가 준비하는 SQL statement 수를 현재 스레드(요청) 단위로 센다.
+ * start()와 stop() 사이에 실행된 statement만 세며, 그 밖의 스레드(스케줄러 등)에서는 아무 일도 하지 않는다.
+ * @author Jun Lee
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    // 지금까지 센 statement 수를 반환하고 측정을 종료한다. start()를 호출하지 않았다면 0을 반환한다.
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return (count != null ? count[0] : 0);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if(count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,59 @@
+package springproject.urssublog.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 요청 하나를 처리하는 동안 실행된 SQL statement 수를 blog.request.sql.statements로 기록한다.
+ * tag는 http method와 요청이 매핑된 URI 패턴(/posts/{articleId} 등)이다. client가 임의의 method로 meter를 계속 만들 수 없도록,
+ * 표준 method가 아니면 OTHER로 기록한다.
+ * @author Jun Lee
+ */
+@RequiredArgsConstructor
+public class SqlStatementMetricsFilter implements Filter {
+    private static final Set<String> KNOWN_METHODS = Set.of("GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS");
+
+    private final MeterRegistry meterRegistry;
+    // (method, URI 패턴)별 summary. 요청마다 builder를 만들어 registry에서 다시 찾지 않는다.
+    private final Map<SummaryKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    private record SummaryKey(String method, String uri) {
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+
+        SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(servletRequest, servletResponse);
+        }
+        finally {
+            int statements = SqlStatementCounter.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            summaries.computeIfAbsent(
+                    new SummaryKey(method(request), (pattern != null ? pattern.toString() : "UNKNOWN")),
+                    key -> DistributionSummary.builder("blog.request.sql.statements")
+                            .description("SQL statements executed per request")
+                            .tag("method", key.method())
+                            .tag("uri", key.uri())
+                            .publishPercentileHistogram()
+                            .register(meterRegistry))
+                    .record(statements);
+        }
+    }
+
+    private static String method(HttpServletRequest request) {
+        String method = request.getMethod();
+        return (KNOWN_METHODS.contains(method) ? method : "OTHER");
+    }
+}
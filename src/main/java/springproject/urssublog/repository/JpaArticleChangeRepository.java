@@ -0,0 +1,30 @@
+package springproject.urssublog.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import springproject.urssublog.domain.ArticleChange;
+import springproject.urssublog.dto.article.ArticleChangeDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface JpaArticleChangeRepository extends JpaRepository<ArticleChange, Long> {
+    // 커서 (cursorTime, cursorId) 이후의 변경 기록을 (changed_at, id) 순으로 최대 pageable 크기만큼 조회. (changed_at, article_change_id) 인덱스를 range scan한다.
+    @Query("select new springproject.urssublog.dto.article.ArticleChangeDto(c.id, c.articleId, c.changedAt)" +
+            " from ArticleChange c" +
+            " where c.changedAt > :cursorTime or (c.changedAt = :cursorTime and c.id > :cursorId)" +
+            " order by c.changedAt, c.id")
+    List<ArticleChangeDto> findChangesAfter(
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
+    // 보관 기간이 지난 변경 기록을 한 번에 삭제.
+    @Modifying
+    @Query("delete from ArticleChange c where c.changedAt < :before")
+    int bulkDeleteBefore(@Param("before") LocalDateTime before);
+}
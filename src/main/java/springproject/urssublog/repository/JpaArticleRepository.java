@@ -1,10 +1,130 @@
 package springproject.urssublog.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import springproject.urssublog.domain.Article;
 import springproject.urssublog.domain.User;
+import springproject.urssublog.dto.article.ArticleSearchDocumentDto;
+import springproject.urssublog.dto.article.ArticleSummaryResponseDto;
+import springproject.urssublog.dto.article.ArticleTitleDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface JpaArticleRepository extends JpaRepository<Article, Long> {
+    // 게시글 목록(ArticleSummaryResponseDto)에 담는 본문 앞부분의 최대 길이
+    int PREVIEW_LENGTH = 100;
+
+    // 게시글 id(PK)와 작성자 id로 소유 여부만 확인. user 엔티티나 컬렉션을 로딩하지 않는다.
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    // 작성자(user)까지 한 번에 필요한 경우에만 사용. 기본 findById는 user를 지연 로딩한다.
+    @EntityGraph("Article.withUser")
+    Optional<Article> findWithUserById(Long id);
+
+    // 회원의 게시글 id를 id 순으로 최대 pageable 크기만큼 조회. 회원 탈퇴 시 chunk 단위 삭제에 사용한다.
+    @Query("select a.id from Article a where a.user.id = :userId order by a.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // 작성자가 userId인 게시글만 UPDATE ... WHERE article_id = ? AND user_id = ? 한 번으로 수정. 수정된 행 수(0 또는 1)를 반환한다.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Article a set a.title = :title, a.content = :content, a.updatedTime = :updatedTime" +
+            " where a.id = :id and a.user.id = :userId")
+    int updateByIdAndUserId(
+            @Param("id") Long id,
+            @Param("userId") Long userId,
+            @Param("title") String title,
+            @Param("content") String content,
+            @Param("updatedTime") LocalDateTime updatedTime
+    );
+
+    // 댓글 수를 읽지 않고 UPDATE ... SET comment_count = comment_count + :delta 로 변경. 동시에 댓글이 작성, 삭제되어도 값을 잃지 않는다.
+    @Modifying
+    @Query("update Article a set a.commentCount = a.commentCount + :delta where a.id = :id")
+    int addCommentCount(@Param("id") Long id, @Param("delta") int delta);
+
+    // 삭제할 댓글이 달린 게시글마다 해당 댓글 수만큼 comment_count를 줄인다. 댓글 bulk 삭제 전에 같은 트랜잭션에서 실행한다.
+    @Modifying(flushAutomatically = true)
+    @Query("update Article a set a.commentCount = a.commentCount" +
+            " - (select count(c) from Comment c where c.article.id = a.id and c.id in :commentIds)" +
+            " where a.id in (select c.article.id from Comment c where c.id in :commentIds)")
+    int subtractCommentCountsOfComments(@Param("commentIds") List<Long> commentIds);
+
+    // id 범위 (fromId, toId]의 게시글 중 comment_count가 실제 댓글 수와 다른 게시글만 실제 값으로 맞춘다.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Article a set a.commentCount = (select count(c) from Comment c where c.article.id = a.id)" +
+            " where a.id > :fromId and a.id <= :toId" +
+            " and a.commentCount <> (select count(c) from Comment c where c.article.id = a.id)")
+    int reconcileCommentCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("select coalesce(max(a.id), 0) from Article a")
+    Long findMaxId();
+
+    // 검색 색인용 id, 제목, 본문 조회. 없는(삭제된) 게시글은 결과에 포함되지 않는다.
+    @Query("select new springproject.urssublog.dto.article.ArticleSearchDocumentDto(a.id, a.title, a.content)" +
+            " from Article a where a.id in :ids")
+    List<ArticleSearchDocumentDto> findSearchDocumentsByIds(@Param("ids") Collection<Long> ids);
+
+    // 검색 결과 게시글의 현재 제목 조회. 없는(삭제된) 게시글은 결과에 포함되지 않는다.
+    @Query("select new springproject.urssublog.dto.article.ArticleTitleDto(a.id, a.title) from Article a where a.id in :ids")
+    List<ArticleTitleDto> findTitlesByIds(@Param("ids") Collection<Long> ids);
+
+    // id 순으로 afterId 다음부터 검색 색인용 값을 최대 pageable 크기만큼 조회. 검색 색인 재생성에 사용한다.
+    @Query("select new springproject.urssublog.dto.article.ArticleSearchDocumentDto(a.id, a.title, a.content)" +
+            " from Article a where a.id > :afterId order by a.id")
+    List<ArticleSearchDocumentDto> findSearchDocumentsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 게시글을 id 목록으로 한 번에 삭제. 댓글은 먼저 삭제되어 있어야 한다. 영속성 컨텍스트는 비워진다.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Article a where a.id in :ids")
+    int bulkDeleteByIds(@Param("ids") List<Long> ids);
+
+    // id 목록에 해당하는 게시글 요약을 한 번에 조회. (인기 게시글) 없는(삭제된) 게시글은 결과에 포함되지 않으며, 순서는 보장하지 않는다.
+    @Query("select new springproject.urssublog.dto.article.ArticleSummaryResponseDto(a.id, u.email, a.title, substring(a.content, 1, " + PREVIEW_LENGTH + "), a.createdTime, a.commentCount)" +
+            " from Article a join a.user u" +
+            " where a.id in :ids")
+    List<ArticleSummaryResponseDto> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // 전체 게시글 목록의 첫 페이지. (created_at, article_id) 인덱스를 역순으로 읽는다. 크기는 Pageable로 제한한다.
+    @Query("select new springproject.urssublog.dto.article.ArticleSummaryResponseDto(a.id, u.email, a.title, substring(a.content, 1, " + PREVIEW_LENGTH + "), a.createdTime, a.commentCount)" +
+            " from Article a join a.user u" +
+            " order by a.createdTime desc, a.id desc")
+    List<ArticleSummaryResponseDto> findSummaryFirstPage(Pageable pageable);
+
+    // 전체 게시글 목록의 다음 페이지. offset 없이 커서 (createdTime, id) 이후부터 인덱스 range scan으로 읽는다.
+    @Query("select new springproject.urssublog.dto.article.ArticleSummaryResponseDto(a.id, u.email, a.title, substring(a.content, 1, " + PREVIEW_LENGTH + "), a.createdTime, a.commentCount)" +
+            " from Article a join a.user u" +
+            " where a.createdTime < :cursorTime or (a.createdTime = :cursorTime and a.id < :cursorId)" +
+            " order by a.createdTime desc, a.id desc")
+    List<ArticleSummaryResponseDto> findSummaryPageAfter(
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
+    // 특정 회원의 게시글 목록 첫 페이지. (user_id, created_at, article_id) 인덱스를 사용한다.
+    @Query("select new springproject.urssublog.dto.article.ArticleSummaryResponseDto(a.id, u.email, a.title, substring(a.content, 1, " + PREVIEW_LENGTH + "), a.createdTime, a.commentCount)" +
+            " from Article a join a.user u" +
+            " where a.user.id = :userId" +
+            " order by a.createdTime desc, a.id desc")
+    List<ArticleSummaryResponseDto> findSummaryFirstPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // 특정 회원의 게시글 목록 다음 페이지.
+    @Query("select new springproject.urssublog.dto.article.ArticleSummaryResponseDto(a.id, u.email, a.title, substring(a.content, 1, " + PREVIEW_LENGTH + "), a.createdTime, a.commentCount)" +
+            " from Article a join a.user u" +
+            " where a.user.id = :userId" +
+            " and (a.createdTime < :cursorTime or (a.createdTime = :cursorTime and a.id < :cursorId))" +
+            " order by a.createdTime desc, a.id desc")
+    List<ArticleSummaryResponseDto> findSummaryPageAfterByUserId(
+            @Param("userId") Long userId,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
 }
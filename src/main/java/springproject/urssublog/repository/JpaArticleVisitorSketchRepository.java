@@ -0,0 +1,29 @@
+package springproject.urssublog.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import springproject.urssublog.domain.ArticleVisitorSketch;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface JpaArticleVisitorSketchRepository extends JpaRepository<ArticleVisitorSketch, Long> {
+    // (article_id, visit_date) unique 인덱스로 조회
+    Optional<ArticleVisitorSketch> findByArticleIdAndVisitDate(Long articleId, LocalDate visitDate);
+
+    // 게시글의 from ~ to(포함) 날짜 sketch 조회. 주간, 월간 방문자 수를 합산할 때 사용한다.
+    @Query("select s from ArticleVisitorSketch s where s.articleId = :articleId and s.visitDate between :from and :to")
+    List<ArticleVisitorSketch> findByArticleIdAndVisitDateBetween(
+            @Param("articleId") Long articleId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    // 삭제된 게시글의 sketch를 한 번에 삭제.
+    @Modifying
+    @Query("delete from ArticleVisitorSketch s where s.articleId in :articleIds")
+    int bulkDeleteByArticleIds(@Param("articleIds") List<Long> articleIds);
+}
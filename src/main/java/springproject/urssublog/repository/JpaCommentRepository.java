@@ -1,8 +1,86 @@
 package springproject.urssublog.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import springproject.urssublog.domain.Comment;
 import springproject.urssublog.domain.User;
+import springproject.urssublog.dto.comment.CommentActivityDto;
+import springproject.urssublog.dto.comment.CommentSummaryResponseDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 public interface JpaCommentRepository extends JpaRepository<Comment, Long> {
+    // 댓글 id(PK)와 작성자 id로 소유 여부만 확인. user 엔티티나 컬렉션을 로딩하지 않는다.
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    // 작성자(user)와 게시글(article)까지 한 번에 필요한 경우에만 사용. 기본 findById는 둘 다 지연 로딩한다.
+    @EntityGraph("Comment.withUserAndArticle")
+    Optional<Comment> findWithUserAndArticleById(Long id);
+
+    // 커서 (cursorTime, cursorId) 이후 댓글의 게시글 id, 작성 시간을 (작성 시간, id) 순으로 최대 pageable 크기만큼 조회.
+    // (created_at, comment_id) 인덱스를 range scan한다. TrendingArticleTracker 복원에 사용한다.
+    @Query("select new springproject.urssublog.dto.comment.CommentActivityDto(c.id, c.article.id, c.createdTime)" +
+            " from Comment c" +
+            " where c.createdTime > :cursorTime or (c.createdTime = :cursorTime and c.id > :cursorId)" +
+            " order by c.createdTime, c.id")
+    List<CommentActivityDto> findActivitiesAfter(
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
+    // 회원이 작성한 댓글 id를 id 순으로 최대 pageable 크기만큼 조회. 회원 탈퇴 시 chunk 단위 삭제에 사용한다.
+    @Query("select c.id from Comment c where c.user.id = :userId order by c.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // 회원의 게시글에 달린 (다른 회원의) 댓글 id를 id 순으로 최대 pageable 크기만큼 조회.
+    @Query("select c.id from Comment c where c.article.id in (select a.id from Article a where a.user.id = :userId) order by c.id")
+    List<Long> findIdsByArticleUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // 작성자가 userId인 댓글만 UPDATE ... WHERE comment_id = ? AND user_id = ? 한 번으로 수정. 수정된 행 수(0 또는 1)를 반환한다.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Comment c set c.content = :content, c.updatedTime = :updatedTime" +
+            " where c.id = :id and c.user.id = :userId")
+    int updateByIdAndUserId(
+            @Param("id") Long id,
+            @Param("userId") Long userId,
+            @Param("content") String content,
+            @Param("updatedTime") LocalDateTime updatedTime
+    );
+
+    // 댓글을 id 목록으로 한 번에 삭제. 영속성 컨텍스트는 비워진다.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Comment c where c.id in :ids")
+    int bulkDeleteByIds(@Param("ids") List<Long> ids);
+
+    // 게시글의 댓글을 DELETE ... WHERE article_id = ? 한 번으로 삭제. 영속성 컨텍스트는 비워진다.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Comment c where c.article.id = :articleId")
+    int bulkDeleteByArticleId(@Param("articleId") Long articleId);
+
+    // 게시글의 댓글 목록 첫 페이지. (article_id, created_at, comment_id) 인덱스 순서대로 읽는다. 크기는 Pageable로 제한한다.
+    @Query("select new springproject.urssublog.dto.comment.CommentSummaryResponseDto(c.id, u.email, c.content, c.createdTime)" +
+            " from Comment c join c.user u" +
+            " where c.article.id = :articleId" +
+            " order by c.createdTime asc, c.id asc")
+    List<CommentSummaryResponseDto> findSummaryFirstPageByArticleId(@Param("articleId") Long articleId, Pageable pageable);
+
+    // 게시글의 댓글 목록 다음 페이지. offset 없이 커서 (createdTime, id) 이후부터 읽는다.
+    @Query("select new springproject.urssublog.dto.comment.CommentSummaryResponseDto(c.id, u.email, c.content, c.createdTime)" +
+            " from Comment c join c.user u" +
+            " where c.article.id = :articleId" +
+            " and (c.createdTime > :cursorTime or (c.createdTime = :cursorTime and c.id > :cursorId))" +
+            " order by c.createdTime asc, c.id asc")
+    List<CommentSummaryResponseDto> findSummaryPageAfterByArticleId(
+            @Param("articleId") Long articleId,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
 }
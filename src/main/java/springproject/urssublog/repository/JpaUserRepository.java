@@ -1,10 +1,41 @@
 package springproject.urssublog.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import springproject.urssublog.domain.User;
+import springproject.urssublog.dto.user.UserIdentityDto;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface JpaUserRepository extends JpaRepository<User, Long> {
+    // second-level-cache 프로필에서는 query cache에 결과(user id)가 보관된다. user 테이블이 변경되면 자동으로 무효화된다.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+
+    // 회원가입 시 중복 확인. email, username의 unique index만 사용한다.
+    boolean existsByEmail(String email);
+
+    boolean existsByUsername(String username);
+
+    // id 순으로 afterId 다음부터 email, username만 최대 pageable 크기만큼 조회. UserIdentityBloomFilter 생성에 사용한다.
+    @Query("select new springproject.urssublog.dto.user.UserIdentityDto(u.id, u.email, u.username)" +
+            " from User u where u.id > :afterId order by u.id")
+    List<UserIdentityDto> findIdentitiesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 회원 한 행만 삭제. 게시글, 댓글은 먼저 bulk 삭제되어 있어야 한다.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from User u where u.id = :id")
+    int bulkDeleteById(@Param("id") Long id);
+
+    // 로그인 시 이전 형식의 비밀번호를 새 형식으로 교체. 그 사이 비밀번호가 바뀌었다면 변경하지 않는다.
+    @Modifying(flushAutomatically = true)
+    @Query("update User u set u.password = :newPassword where u.id = :id and u.password = :oldPassword")
+    int updatePassword(@Param("id") Long id, @Param("oldPassword") String oldPassword, @Param("newPassword") String newPassword);
+}
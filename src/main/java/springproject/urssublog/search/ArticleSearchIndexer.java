@@ -0,0 +1,339 @@
+package springproject.urssublog.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.ko.KoreanAnalyzer;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import springproject.urssublog.dto.article.ArticleChangeDto;
+import springproject.urssublog.dto.article.ArticleSearchDocumentDto;
+import springproject.urssublog.event.ArticleChangedEvent;
+import springproject.urssublog.repository.JpaArticleChangeRepository;
+import springproject.urssublog.repository.JpaArticleRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 게시글 검색 색인(LuceneArticleIndex, 노드별 로컬 디렉터리)을 DB와 맞추는 작업과 검색을 담당한다.
+ *
+ * 1. 변경 기록 : 게시글 등록, 수정, 삭제 트랜잭션 안에서(ArticleChangedEvent) 게시글 id를 article_change 테이블에 기록한다.
+ *    색인은 노드마다 따로 있지만 변경 기록은 DB에 있으므로, 모든 노드가 다른 노드의 변경까지 같은 방법으로 반영한다.
+ * 2. 반영 : flush()에서 변경 기록을 (changed_at, id) 순으로 커서 이후부터 읽고, 게시글 id를 batchSize개씩 DB에서 다시 읽어
+ *    있는 게시글은 색인을 교체하고 없는 게시글은 색인에서 삭제한 뒤 commit한다. 이벤트의 순서나 중복과 관계없이 마지막에는 DB의 현재 내용이 색인된다.
+ *    changed_at과 커서는 모두 DB 시각이므로 노드 간 시계 차이의 영향을 받지 않는다. 기록한 뒤 늦게 commit된 트랜잭션의 기록을 놓치지 않도록
+ *    커서보다 lag만큼 이전부터 다시 읽고, 이미 읽은 기록은 건너뛴다.
+ *    반영에 실패한 id는 다음 flush에서 재시도한다.
+ * 3. 커서 저장 : 모든 변경을 반영하면 커서를 색인의 commitData에 함께 저장한다. 재시작하면 저장된 커서부터 이어서 읽는다.
+ * 4. 재생성 : rebuild()는 색인을 비우고 모든 게시글을 id 순으로 다시 색인한다. 색인이 없거나, 저장된 커서 이후의 변경 기록이
+ *    이미 삭제된 경우(보관 기간 retention보다 오래 중지된 노드) 시작 후 자동으로 실행되며, --rebuild-search-index 옵션으로 실행하면 시작 시 강제로 실행된다.
+ *    (SearchIndexRebuildRunner)
+ *
+ * 보관 기간이 지난 변경 기록은 주기적으로 삭제한다.
+ * @author Jun Lee
+ */
+@Slf4j
+@Component
+public class ArticleSearchIndexer {
+    // 색인 commitData에 저장하는 변경 기록 커서(모두 반영한 마지막 changed_at)
+    private static final String CHANGE_CURSOR = "articleChangeCursor";
+    private static final String INSERT_CHANGE = "INSERT INTO article_change (article_id, changed_at) VALUES (?, CURRENT_TIMESTAMP(6))";
+    private static final String SELECT_NOW = "SELECT CURRENT_TIMESTAMP(6)";
+
+    private final JpaArticleRepository articleRepository;
+    private final JpaArticleChangeRepository changeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LuceneArticleIndex index;
+    private final int batchSize;
+    private final Duration lag;
+    private final Duration retention;
+    // 아직 색인에 반영하지 않은 게시글 id
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+    // flush, rebuild, close가 동시에 색인을 변경하지 않도록 한다. 아래의 커서, 최근 기록, closed도 이 lock 안에서만 사용한다.
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private final Timer searchTimer;
+    // 변경 기록을 여기까지 읽었다. (읽은 기록 중 가장 늦은 changed_at)
+    private LocalDateTime changeCursor;
+    // 색인 commitData에 마지막으로 저장한 커서
+    private LocalDateTime savedCursor;
+    // 커서 - lag 이후에 이미 읽은 변경 기록 id와 changed_at. 다시 읽을 때 같은 게시글을 반복해서 색인하지 않도록 건너뛴다.
+    private final Map<Long, LocalDateTime> recentChanges = new HashMap<>();
+    // 색인이 없거나 저장된 커서부터 이어서 반영할 수 없어 재생성이 필요한 경우 true. 재생성 전에는 flush하지 않는다.
+    private volatile boolean rebuildRequired;
+    // 색인을 닫은 뒤 true. 이후의 flush, rebuild는 아무것도 하지 않는다.
+    private boolean closed;
+
+    public ArticleSearchIndexer(
+            JpaArticleRepository articleRepository,
+            JpaArticleChangeRepository changeRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${blog.search.index-dir:data/search-index}") String indexDir,
+            @Value("${blog.search.batch-size:500}") int batchSize,
+            @Value("${blog.search.change-log.lag:PT30S}") Duration lag,
+            @Value("${blog.search.change-log.retention:P1D}") Duration retention,
+            MeterRegistry meterRegistry
+    ) throws IOException {
+        this.articleRepository = articleRepository;
+        this.changeRepository = changeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        // 디렉터리를 지정하지 않으면(테스트) 메모리에 색인한다.
+        this.index = new LuceneArticleIndex(
+                indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDir)),
+                new KoreanAnalyzer());
+        this.batchSize = batchSize;
+        this.lag = lag;
+        this.retention = retention;
+        this.searchTimer = Timer.builder("blog.search.query")
+                .description("Article full-text search time")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("blog.search.pending", pendingIds, Set::size)
+                .description("Changed articles not yet applied to the search index")
+                .register(meterRegistry);
+
+        LocalDateTime now = dbNow();
+        String lastCursor = index.lastCommitData().get(CHANGE_CURSOR);
+        if(lastCursor != null && LocalDateTime.parse(lastCursor).minus(lag).isAfter(now.minus(retention))) {
+            this.changeCursor = LocalDateTime.parse(lastCursor);
+            this.savedCursor = changeCursor;
+        }
+        else {
+            // 재생성 중에 생긴 변경도 반영되도록 지금부터의 변경 기록을 읽는다.
+            this.changeCursor = now;
+            this.rebuildRequired = true;
+        }
+    }
+
+    /**
+     * 검색어의 모든 단어를 제목 또는 본문에 포함하는 게시글을 관련도 순으로 최대 size개 반환한다.
+     * @author Jun Lee
+     */
+    public List<LuceneArticleIndex.Hit> search(String query, int size) {
+        return searchTimer.record(() -> {
+            try {
+                return index.search(query, size);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * 변경된 게시글 id를 article_change에 기록한다. 게시글을 변경하는 트랜잭션 안에서 실행되므로, 변경이 rollback되면 기록도 남지 않는다.
+     * 변경 시각(changed_at)은 노드의 시계가 아니라 DB 시각으로 기록한다.
+     * @author Jun Lee
+     */
+    @EventListener
+    public void recordChanges(ArticleChangedEvent event) {
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, event.getArticleIds(), batchSize,
+                (ps, articleId) -> ps.setLong(1, articleId));
+    }
+
+    // 변경 기록의 changed_at과 비교할 현재 DB 시각
+    private LocalDateTime dbNow() {
+        return jdbcTemplate.queryForObject(SELECT_NOW, LocalDateTime.class);
+    }
+
+    /**
+     * 모든 노드의 새 변경 기록을 읽어 해당 게시글을 batchSize개씩 색인에 반영하고, 반영한 게시글 수를 반환한다.
+     * @author Jun Lee
+     */
+    @Scheduled(fixedDelayString = "${blog.search.flush-interval:PT1S}")
+    public int flush() {
+        if(rebuildRequired) {
+            return 0;
+        }
+        indexLock.lock();
+        try {
+            if(closed) {
+                return 0;
+            }
+            pollChanges();
+            if(pendingIds.isEmpty()) {
+                // 반영할 게시글이 없어도 커서가 옮겨졌으면 저장해, 변경이 적은 기간에 저장된 커서가 보관 기간을 넘지 않도록 한다.
+                if(!changeCursor.equals(savedCursor)) {
+                    commitCursor();
+                }
+                return 0;
+            }
+            int flushed = 0;
+            while (!pendingIds.isEmpty()) {
+                List<Long> batch = takeBatch();
+                try {
+                    apply(batch);
+                    flushed += batch.size();
+                }
+                catch (IOException | RuntimeException e) {
+                    log.warn("ArticleSearchIndexer, failed to index {} articles. They will be retried.", batch.size(), e);
+                    pendingIds.addAll(batch);
+                    break;
+                }
+            }
+            // 모두 반영한 경우에만 커서를 저장한다. 실패한 id가 남아 있으면 이전 커서를 유지해, 재시작 시 다시 읽는다.
+            if(pendingIds.isEmpty()) {
+                commitCursor();
+            }
+            else {
+                index.commit();
+            }
+            log.debug("ArticleSearchIndexer, indexed {} changed articles.", flushed);
+            return flushed;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finally {
+            indexLock.unlock();
+        }
+    }
+
+    // 커서 - lag 이후의 변경 기록을 읽어, 처음 읽는 기록의 게시글 id를 pendingIds에 추가하고 커서를 옮긴다.
+    private void pollChanges() {
+        LocalDateTime cursorTime = changeCursor.minus(lag);
+        long cursorId = 0;
+        List<ArticleChangeDto> chunk;
+        do {
+            chunk = changeRepository.findChangesAfter(cursorTime, cursorId, PageRequest.of(0, batchSize));
+            for (ArticleChangeDto change : chunk) {
+                if(recentChanges.putIfAbsent(change.id(), change.changedAt()) == null) {
+                    pendingIds.add(change.articleId());
+                }
+                cursorTime = change.changedAt();
+                cursorId = change.id();
+            }
+        } while (chunk.size() == batchSize);
+        if(cursorTime.isAfter(changeCursor)) {
+            changeCursor = cursorTime;
+        }
+        LocalDateTime forgetBefore = changeCursor.minus(lag);
+        recentChanges.values().removeIf(changedAt -> changedAt.isBefore(forgetBefore));
+    }
+
+    private void commitCursor() throws IOException {
+        index.commit(Map.of(CHANGE_CURSOR, changeCursor.toString()));
+        savedCursor = changeCursor;
+    }
+
+    private List<Long> takeBatch() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        Iterator<Long> iterator = pendingIds.iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+        return batch;
+    }
+
+    // DB에 있는 게시글은 교체하고, 없는 게시글은 삭제한다.
+    private void apply(List<Long> articleIds) throws IOException {
+        List<ArticleSearchDocumentDto> articles = articleRepository.findSearchDocumentsByIds(articleIds);
+        Set<Long> deleted = new HashSet<>(articleIds);
+        for (ArticleSearchDocumentDto article : articles) {
+            deleted.remove(article.id());
+        }
+        index.upsert(articles);
+        if(!deleted.isEmpty()) {
+            index.delete(deleted);
+        }
+    }
+
+    /**
+     * 색인을 비우고 모든 게시글을 id 순으로 batchSize개씩 읽어 다시 색인한 뒤, 색인한 게시글 수를 반환한다.
+     * 재생성을 시작한 시각부터의 변경 기록을 다시 읽으므로, 재생성 중에 변경된 게시글은 재생성이 끝난 뒤 flush()에서 반영된다.
+     * @author Jun Lee
+     */
+    public long rebuild() {
+        indexLock.lock();
+        try {
+            if(closed) {
+                return 0;
+            }
+            long start = System.nanoTime();
+            LocalDateTime startedAt = dbNow();
+            index.deleteAll();
+            long lastId = 0;
+            long indexed = 0;
+            List<ArticleSearchDocumentDto> chunk;
+            do {
+                chunk = articleRepository.findSearchDocumentsAfter(lastId, PageRequest.of(0, batchSize));
+                if(!chunk.isEmpty()) {
+                    index.upsert(chunk);
+                    lastId = chunk.get(chunk.size() - 1).id();
+                    indexed += chunk.size();
+                }
+            } while (chunk.size() == batchSize);
+            changeCursor = startedAt;
+            recentChanges.clear();
+            commitCursor();
+            rebuildRequired = false;
+            log.info("ArticleSearchIndexer, rebuilt search index with {} articles in {} ms.",
+                    indexed, (System.nanoTime() - start) / 1_000_000);
+            return indexed;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finally {
+            indexLock.unlock();
+        }
+    }
+
+    // 재생성이 필요하면(새 노드, 색인 디렉터리 삭제, 오래 중지된 노드) 다른 스레드에서 재생성한다. 그 전에 rebuild()가 실행되었으면 건너뛴다.
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfRequired() {
+        if(rebuildRequired) {
+            Thread.ofVirtual().name("article-search-rebuild").start(() -> {
+                if(rebuildRequired) {
+                    rebuild();
+                }
+            });
+        }
+    }
+
+    /**
+     * 보관 기간(retention)이 지난 변경 기록을 삭제하고, 삭제한 행 수를 반환한다. 여러 노드에서 실행되어도 결과는 같다.
+     * @author Jun Lee
+     */
+    @Scheduled(cron = "${blog.search.change-log.purge-cron:0 0 * * * *}")
+    public int purgeChanges() {
+        LocalDateTime before = dbNow().minus(retention);
+        Integer deleted = transactionTemplate.execute(status -> changeRepository.bulkDeleteBefore(before));
+        log.debug("ArticleSearchIndexer, purged {} article changes before {}.", deleted, before);
+        return (deleted != null ? deleted : 0);
+    }
+
+    // 종료 시 남은 변경을 반영하고 색인을 닫는다. 재생성 중이면 끝날 때까지 기다린 뒤 닫는다.
+    @PreDestroy
+    public void close() throws IOException {
+        flush();
+        indexLock.lock();
+        try {
+            closed = true;
+            index.close();
+        }
+        finally {
+            indexLock.unlock();
+        }
+    }
+}
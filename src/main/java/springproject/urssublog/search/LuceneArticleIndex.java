@@ -0,0 +1,173 @@
+package springproject.urssublog.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.Directory;
+import springproject.urssublog.dto.article.ArticleSearchDocumentDto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * 게시글 제목, 본문의 Lucene 역색인. 검색어를 analyzer로 나눈 모든 단어가 제목 또는 본문에 있는 게시글을 관련도(BM25) 순으로 찾는다.
+ * 제목에 있는 단어는 본문보다 TITLE_BOOST배 높게 평가한다.
+ *
+ * 변경은 commit()을 호출해야 디스크에 반영되고 검색에 보인다. 여러 스레드에서 동시에 사용할 수 있다.
+ * @author Jun Lee
+ */
+public class LuceneArticleIndex implements Closeable {
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String CONTENT = "content";
+    private static final float TITLE_BOOST = 2.0f;
+    // 검색어에서 사용할 최대 단어 수
+    private static final int MAX_QUERY_TERMS = 16;
+
+    public record Hit(long articleId, String title, float score) {
+    }
+
+    private final Directory directory;
+    private final Analyzer analyzer;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public LuceneArticleIndex(Directory directory, Analyzer analyzer) throws IOException {
+        this.directory = directory;
+        this.analyzer = analyzer;
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * 게시글 문서를 추가하거나, 같은 id의 문서가 있으면 교체한다.
+     * @author Jun Lee
+     */
+    public void upsert(List<ArticleSearchDocumentDto> articles) throws IOException {
+        for (ArticleSearchDocumentDto article : articles) {
+            String id = article.id().toString();
+            Document document = new Document();
+            document.add(new StringField(ID, id, Field.Store.YES));
+            document.add(new TextField(TITLE, article.title(), Field.Store.YES));
+            document.add(new TextField(CONTENT, article.content(), Field.Store.NO));
+            writer.updateDocument(new Term(ID, id), document);
+        }
+    }
+
+    public void delete(Collection<Long> articleIds) throws IOException {
+        Term[] terms = articleIds.stream().map(id -> new Term(ID, id.toString())).toArray(Term[]::new);
+        writer.deleteDocuments(terms);
+    }
+
+    public void deleteAll() throws IOException {
+        writer.deleteAll();
+    }
+
+    // 변경 사항을 디스크에 반영하고, 이후 검색에서 보이도록 searcher를 갱신한다.
+    public void commit() throws IOException {
+        writer.commit();
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    /**
+     * commit()과 같고, commitData(변경 기록을 어디까지 반영했는지 등)를 색인과 함께 저장한다. 다시 열 때 lastCommitData()로 읽는다.
+     * @author Jun Lee
+     */
+    public void commit(Map<String, String> commitData) throws IOException {
+        writer.setLiveCommitData(Map.copyOf(commitData).entrySet());
+        commit();
+    }
+
+    // 마지막 commit에 저장한 commitData. commit된 적이 없으면 빈 Map을 반환한다.
+    public Map<String, String> lastCommitData() throws IOException {
+        if(isNew()) {
+            return Map.of();
+        }
+        return SegmentInfos.readLatestCommit(directory).getUserData();
+    }
+
+    /**
+     * 검색어의 모든 단어를 포함하는 게시글을 관련도 순으로 최대 size개 반환한다. 단어가 없는 검색어는 빈 목록을 반환한다.
+     * @author Jun Lee
+     */
+    public List<Hit> search(String queryText, int size) throws IOException {
+        Query query = buildQuery(queryText);
+        if(query == null) {
+            return List.of();
+        }
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query, size);
+            StoredFields storedFields = searcher.storedFields();
+            List<Hit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                Document document = storedFields.document(scoreDoc.doc, Set.of(ID, TITLE));
+                hits.add(new Hit(Long.parseLong(document.get(ID)), document.get(TITLE), scoreDoc.score));
+            }
+            return hits;
+        }
+        finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    public int numDocs() throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return searcher.getIndexReader().numDocs();
+        }
+        finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    // 한 번도 commit되지 않은(새로 만든) 색인인지 확인한다.
+    public boolean isNew() throws IOException {
+        return !DirectoryReader.indexExists(directory);
+    }
+
+    // 단어마다 (title^TITLE_BOOST OR content)를 만들고, 모든 단어를 MUST로 묶는다.
+    private Query buildQuery(String queryText) throws IOException {
+        Set<String> terms = new LinkedHashSet<>();
+        try (TokenStream stream = analyzer.tokenStream(CONTENT, queryText)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken() && terms.size() < MAX_QUERY_TERMS) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        }
+        if(terms.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            Query either = new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(new Term(TITLE, term)), TITLE_BOOST), BooleanClause.Occur.SHOULD)
+                    .add(new TermQuery(new Term(CONTENT, term)), BooleanClause.Occur.SHOULD)
+                    .build();
+            query.add(either, BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+}
@@ -0,0 +1,26 @@
+package springproject.urssublog.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * --rebuild-search-index 옵션으로 실행하면 요청을 받기 전에 검색 색인을 DB에서 다시 만든다.
+ * 예 : java -jar urssublog.jar --rebuild-search-index
+ * @author Jun Lee
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchIndexRebuildRunner implements ApplicationRunner {
+    public static final String OPTION = "rebuild-search-index";
+
+    private final ArticleSearchIndexer articleSearchIndexer;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if(args.containsOption(OPTION)) {
+            articleSearchIndexer.rebuild();
+        }
+    }
+}
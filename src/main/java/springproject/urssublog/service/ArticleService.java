@@ -1,23 +1,56 @@
 package springproject.urssublog.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import springproject.urssublog.cache.ArticleCache;
 import springproject.urssublog.domain.Article;
 import springproject.urssublog.domain.User;
+import springproject.urssublog.dto.article.ArticleResponseDto;
+import springproject.urssublog.dto.article.ArticleSearchResponseDto;
+import springproject.urssublog.dto.article.ArticleStatsResponseDto;
+import springproject.urssublog.dto.article.ArticleSummaryResponseDto;
+import springproject.urssublog.dto.article.ArticleTitleDto;
+import springproject.urssublog.dto.article.TrendingArticleResponseDto;
+import springproject.urssublog.dto.page.CursorPageResponseDto;
+import springproject.urssublog.exception.classes.BlogNotAuthorizedException;
 import springproject.urssublog.exception.classes.BlogResourceNotFoundException;
+import springproject.urssublog.event.ArticleChangedEvent;
 import springproject.urssublog.exception.classes.BlogUserNotFoundException;
 import springproject.urssublog.repository.JpaArticleRepository;
+import springproject.urssublog.repository.JpaCommentRepository;
 import springproject.urssublog.repository.JpaUserRepository;
+import springproject.urssublog.search.ArticleSearchIndexer;
+import springproject.urssublog.search.LuceneArticleIndex;
+import springproject.urssublog.sketch.ArticleVisitorTracker;
+import springproject.urssublog.sketch.DecayingTopK;
+import springproject.urssublog.sketch.TrendingArticleTracker;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
+@Timed(value = "blog.service", histogram = true)
 @RequiredArgsConstructor
 public class ArticleService {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final JpaUserRepository userRepository;
     private final JpaArticleRepository articleRepository;
+    private final JpaCommentRepository commentRepository;
+    private final ArticleCache articleCache;
+    private final TrendingArticleTracker trendingArticleTracker;
+    private final ArticleVisitorTracker articleVisitorTracker;
+    private final ArticleSearchIndexer articleSearchIndexer;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Article 객체와 로그인 중인 사용자의 id를 파라미터로 받아 게시글을 등록한다. 추가로, 생성 시간을 지정한다.
@@ -35,41 +68,205 @@ public class ArticleService {
         article.setUser(user);
         user.getArticles().add(article);
         articleRepository.save(article);
+        eventPublisher.publishEvent(ArticleChangedEvent.created(List.of(article.getId())));
         return article.getId();
     }
 
     /**
-     * id, title, content를 가지고 있는 새로운 Article 객체를 파라미터로 받아 해당 내용으로 게시글을 수정한다.
-     * 추가로, 수정 시간을 지정한다.
+     * Article 객체 목록과 사용자의 id를 파라미터로 받아 게시글을 한 번에 등록한다.
+     * pooled-id 프로필에서는 id를 미리 할당받으므로 insert가 hibernate.jdbc.batch_size 단위의 batch로 실행된다.
      * @author Jun Lee
      */
     @Transactional
-    public void updateArticle(Article newArticle) {
-        Optional<Article> optionalArticle = articleRepository.findById(newArticle.getId());
-        if(optionalArticle.isEmpty()) {
-            throw new BlogResourceNotFoundException("해당 id의 게시글이 존재하지 않습니다.");
+    public List<Long> saveArticles(List<Article> articles, Long userId) {
+        Optional<User> optionalUser = userRepository.findById(userId);
+        if(optionalUser.isEmpty()) {
+            throw new BlogUserNotFoundException("해당 id의 회원이 존재하지 않습니다.");
         }
+        User user = optionalUser.get();
 
-        Article article = optionalArticle.get();
-        article.setUpdatedTime(LocalDateTime.now());
-        article.setTitle(newArticle.getTitle());
-        article.setContent(newArticle.getContent());
+        LocalDateTime now = LocalDateTime.now();
+        for (Article article : articles) {
+            article.setCreatedTime(now);
+            article.setUser(user);
+            user.getArticles().add(article);
+        }
+        List<Long> ids = articleRepository.saveAll(articles).stream().map(Article::getId).toList();
+        eventPublisher.publishEvent(ArticleChangedEvent.created(ids));
+        return ids;
+    }
+
+    /**
+     * id, title, content를 가지고 있는 새로운 Article 객체와 로그인 중인 사용자의 id를 파라미터로 받아 해당 내용으로 게시글을 수정한다.
+     * 추가로, 수정 시간을 지정한다.
+     * 게시글을 로딩하지 않고 UPDATE ... WHERE article_id = ? AND user_id = ? 한 번으로 수정하며, 수정된 행 수로 소유 여부를 함께 확인한다.
+     * 수정된 행이 없는 경우에만 회원 존재 여부를 추가로 조회한다. (UserService.checkIsArticleFromUser와 같은 예외)
+     * @author Jun Lee
+     */
+    @Transactional
+    public void updateArticle(Article newArticle, Long userId) {
+        int updated = articleRepository.updateByIdAndUserId(newArticle.getId(), userId,
+                newArticle.getTitle(), newArticle.getContent(), LocalDateTime.now());
+        if(updated == 0) {
+            if(!userRepository.existsById(userId)) {
+                throw new BlogUserNotFoundException("해당 id의 회원이 존재하지 않습니다.");
+            }
+            throw new BlogNotAuthorizedException("로그인 중인 사용자의 게시글이 아닙니다.");
+        }
+        eventPublisher.publishEvent(ArticleChangedEvent.updated(newArticle.getId()));
     }
 
     /**
      * 게시글 id를 파라미터로 받아 해당 게시글을 삭제한다.
+     * 댓글을 하나씩 로딩해 삭제하지 않고 DELETE ... WHERE article_id = ? 로 먼저 삭제한 뒤 게시글을 삭제한다.
      * @author Jun Lee
      */
     @Transactional
     public void deleteArticle(Long articleId) {
-        Optional<Article> optionalArticle = articleRepository.findById(articleId);
+        Optional<Article> optionalArticle = articleRepository.findWithUserById(articleId);
         if(optionalArticle.isEmpty()) {
             throw new BlogResourceNotFoundException("해당 id의 게시글이 존재하지 않습니다.");
         }
+        Article article = optionalArticle.get();
+        User user = article.getUser();
+
+        commentRepository.bulkDeleteByArticleId(articleId);
+        articleRepository.bulkDeleteByIds(List.of(articleId));
+        eventPublisher.publishEvent(ArticleChangedEvent.deleted(List.of(articleId)));
 
+        // 이미 로딩된 작성자의 게시글 컬렉션이 있다면 메모리상에서도 제거한다.
+        // bulk 삭제 후 영속성 컨텍스트가 비워졌으므로 orphanRemoval cascade나 컬렉션 초기화 쿼리는 발생하지 않는다.
+        if(user != null && Hibernate.isInitialized(user.getArticles())) {
+            user.getArticles().remove(article);
+        }
+    }
+
+    /**
+     * 게시글 id를 파라미터로 받아 게시글을 조회한다. 조회 결과는 ArticleCache에 보관되어 수정/삭제 전까지(최대 TTL 동안) 재사용된다.
+     * 캐시에 없는 경우에만 게시글과 작성자를 한 번에 조회하며, 같은 게시글에 대한 동시 조회는 하나의 DB 조회를 공유한다.
+     * 게시글이 없으면 같은 조회를 기다리던 요청 모두에게 BlogResourceNotFoundException이 전달된다.
+     * service 트랜잭션을 열지 않으므로, 캐시를 채우는 조회는 항상 조회 시점에 commit된 내용을 읽는다.
+     * @author Jun Lee
+     */
+    public ArticleResponseDto findArticle(Long articleId) {
+        return articleCache.get(articleId, id -> articleRepository.findWithUserById(id)
+                .map(article -> new ArticleResponseDto(
+                        article.getId(), article.getUser().getEmail(), article.getTitle(), article.getContent()))
+                .orElseThrow(() -> new BlogResourceNotFoundException("해당 id의 게시글이 존재하지 않습니다.")));
+    }
+
+    /**
+     * 검색어의 모든 단어를 제목 또는 본문에 포함하는 게시글을 관련도 순으로 최대 size개 조회한다.
+     * 검색 색인(ArticleSearchIndexer)에서 찾은 게시글을 DB에서 다시 조회하므로, 색인에 아직 반영되지 않은(기본 1초 이내) 변경 중
+     * 삭제와 제목 수정은 결과에 바로 반영된다. 삭제된 게시글은 결과에서 빠지므로 size개보다 적게 반환할 수 있다.
+     * @author Jun Lee
+     */
+    public List<ArticleSearchResponseDto> searchArticles(String query, int size) {
+        List<LuceneArticleIndex.Hit> hits = articleSearchIndexer.search(query, normalizePageSize(size));
+        if(hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, String> titles = new HashMap<>();
+        for (ArticleTitleDto article : articleRepository.findTitlesByIds(hits.stream().map(LuceneArticleIndex.Hit::articleId).toList())) {
+            titles.put(article.id(), article.title());
+        }
+        return hits.stream()
+                .filter(hit -> titles.containsKey(hit.articleId()))
+                .map(hit -> new ArticleSearchResponseDto(hit.articleId(), titles.get(hit.articleId()), hit.score()))
+                .toList();
+    }
+
+    /**
+     * 게시글 id를 파라미터로 받아 조회수, 댓글 수와 오늘, 최근 7일, 최근 30일(오늘 포함)의 순 방문자 수 추정값을 조회한다.
+     * 방문자 수는 최근 30일의 날짜별 HyperLogLog sketch를 한 번 조회해 병합하며, (게시글, 회원) 방문 기록을 조회하지 않는다.
+     * @author Jun Lee
+     */
+    @Transactional(readOnly = true)
+    public ArticleStatsResponseDto findArticleStats(Long articleId) {
+        Optional<Article> optionalArticle = articleRepository.findById(articleId);
+        if(optionalArticle.isEmpty()) {
+            throw new BlogResourceNotFoundException("해당 id의 게시글이 존재하지 않습니다.");
+        }
         Article article = optionalArticle.get();
-        article.getUser().getArticles().remove(article);
-        articleRepository.deleteById(article.getId());
+
+        long[] visitors = articleVisitorTracker.estimateRecentVisitors(articleId, articleVisitorTracker.today(), 1, 7, 30);
+        return new ArticleStatsResponseDto(
+                articleId,
+                article.getViewCount(),
+                article.getCommentCount(),
+                visitors[0],
+                visitors[1],
+                visitors[2]
+        );
+    }
+
+    /**
+     * 최근 조회수와 댓글 수로 추정한 인기 게시글을 점수 순으로 최대 size개 조회한다.
+     * 순위는 TrendingArticleTracker(메모리)에서 가져오고, 제목과 작성자는 id 목록으로 한 번에 조회한다. 댓글 테이블은 집계하지 않는다.
+     * 그 사이 삭제된 게시글은 결과에서만 뺀다. (집계에서는 삭제가 commit될 때 제거된다.)
+     * @author Jun Lee
+     */
+    public List<TrendingArticleResponseDto> findTrendingArticles(int size) {
+        List<DecayingTopK.Entry> entries = trendingArticleTracker.top(normalizePageSize(size));
+        if(entries.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ArticleSummaryResponseDto> articles = new HashMap<>();
+        for (ArticleSummaryResponseDto article : articleRepository.findSummariesByIds(entries.stream().map(DecayingTopK.Entry::key).toList())) {
+            articles.put(article.getArticleId(), article);
+        }
+        List<TrendingArticleResponseDto> trending = new ArrayList<>(articles.size());
+        for (DecayingTopK.Entry entry : entries) {
+            ArticleSummaryResponseDto article = articles.get(entry.key());
+            if(article != null) {
+                trending.add(new TrendingArticleResponseDto(
+                        article.getArticleId(), article.getEmail(), article.getTitle(), entry.score()));
+            }
+        }
+        return trending;
+    }
+
+    /**
+     * 전체 게시글을 최신순으로 커서 기반 페이지 조회한다. cursorTime, cursorId가 없으면 첫 페이지를 조회한다.
+     * offset을 사용하지 않으므로 뒤쪽 페이지도 첫 페이지와 같은 비용으로 조회된다.
+     * @author Jun Lee
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponseDto<ArticleSummaryResponseDto> findArticles(LocalDateTime cursorTime, Long cursorId, int size) {
+        int pageSize = normalizePageSize(size);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<ArticleSummaryResponseDto> rows = (cursorTime == null || cursorId == null)
+                ? articleRepository.findSummaryFirstPage(limit)
+                : articleRepository.findSummaryPageAfter(cursorTime, cursorId, limit);
+        return CursorPageResponseDto.of(rows, pageSize,
+                ArticleSummaryResponseDto::getCreatedTime, ArticleSummaryResponseDto::getArticleId);
+    }
+
+    /**
+     * 회원 id를 파라미터로 받아 해당 회원의 게시글을 최신순으로 커서 기반 페이지 조회한다.
+     * @author Jun Lee
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponseDto<ArticleSummaryResponseDto> findArticlesByUser(
+            Long userId, LocalDateTime cursorTime, Long cursorId, int size
+    ) {
+        if(!userRepository.existsById(userId)) {
+            throw new BlogUserNotFoundException("해당 id의 회원이 존재하지 않습니다.");
+        }
+
+        int pageSize = normalizePageSize(size);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<ArticleSummaryResponseDto> rows = (cursorTime == null || cursorId == null)
+                ? articleRepository.findSummaryFirstPageByUserId(userId, limit)
+                : articleRepository.findSummaryPageAfterByUserId(userId, cursorTime, cursorId, limit);
+        return CursorPageResponseDto.of(rows, pageSize,
+                ArticleSummaryResponseDto::getCreatedTime, ArticleSummaryResponseDto::getArticleId);
+    }
+
+    private int normalizePageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
     }
 
     // 디버깅용. Article 객체의 title 조회 메서드
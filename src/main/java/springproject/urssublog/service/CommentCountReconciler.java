@@ -0,0 +1,62 @@
+package springproject.urssublog.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import springproject.urssublog.repository.JpaArticleRepository;
+
+/**
+ * 게시글의 comment_count를 실제 댓글 수와 맞추는 작업.
+ * comment_count는 댓글 작성, 삭제 시 UPDATE ... SET comment_count = comment_count ± n 으로 유지되지만,
+ * 컬럼 추가 이전의 데이터나 직접 실행한 SQL 등으로 실제 댓글 수와 달라질 수 있어 주기적으로 다시 맞춘다.
+ *
+ * 게시글 id 범위를 chunkSize 단위로 나누어 범위마다 UPDATE 한 번(트랜잭션 하나)으로 처리하며, 값이 다른 게시글만 변경한다.
+ * @author Jun Lee
+ */
+@Slf4j
+@Component
+public class CommentCountReconciler {
+    private final JpaArticleRepository articleRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long chunkSize;
+    private final Counter reconciledCounter;
+
+    public CommentCountReconciler(
+            JpaArticleRepository articleRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${blog.comment-count.reconcile.chunk-size:1000}") long chunkSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.articleRepository = articleRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.reconciledCounter = Counter.builder("blog.comment-count.reconciled")
+                .description("Articles whose denormalized comment_count differed from the actual comment count")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 모든 게시글의 comment_count를 실제 댓글 수로 맞추고, 변경된 게시글 수를 반환한다.
+     * @author Jun Lee
+     */
+    @Scheduled(cron = "${blog.comment-count.reconcile.cron:0 30 4 * * *}")
+    public int reconcile() {
+        long maxId = articleRepository.findMaxId();
+        int total = 0;
+        for (long fromId = 0; fromId < maxId; fromId += chunkSize) {
+            long from = fromId;
+            Integer fixed = transactionTemplate.execute(status ->
+                    articleRepository.reconcileCommentCounts(from, from + chunkSize));
+            total += (fixed != null ? fixed : 0);
+        }
+        reconciledCounter.increment(total);
+        if(total > 0) {
+            log.info("CommentCountReconciler, fixed comment_count of {} articles.", total);
+        }
+        return total;
+    }
+}
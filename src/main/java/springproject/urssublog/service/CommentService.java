@@ -1,30 +1,41 @@
 package springproject.urssublog.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import springproject.urssublog.domain.Article;
 import springproject.urssublog.domain.Comment;
 import springproject.urssublog.domain.User;
+import springproject.urssublog.dto.comment.CommentSummaryResponseDto;
+import springproject.urssublog.dto.page.CursorPageResponseDto;
+import springproject.urssublog.exception.classes.BlogNotAuthorizedException;
 import springproject.urssublog.exception.classes.BlogResourceNotFoundException;
 import springproject.urssublog.exception.classes.BlogUserNotFoundException;
 import springproject.urssublog.repository.JpaArticleRepository;
 import springproject.urssublog.repository.JpaCommentRepository;
 import springproject.urssublog.repository.JpaUserRepository;
+import springproject.urssublog.sketch.TrendingArticleTracker;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed(value = "blog.service", histogram = true)
 @RequiredArgsConstructor
 public class CommentService {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final JpaUserRepository userRepository;
     private final JpaArticleRepository articleRepository;
     private final JpaCommentRepository commentRepository;
+    private final TrendingArticleTracker trendingArticleTracker;
 
     /**
      * content를 가지고 있는 Comment 객체와 게시물 id, 로그인 중인 사용자의 id를 파라미터로 받아 댓글을 등록한다.
-     * 추가로, 생성 시간을 지정한다.
+     * 추가로, 생성 시간을 지정하고 게시글의 댓글 수를 1 늘린 뒤, 인기 게시글 집계에 기록한다.
      * @author Jun Lee
      */
     @Transactional
@@ -51,34 +62,71 @@ public class CommentService {
         user.getComments().add(comment);
 
         commentRepository.save(comment);
+        articleRepository.addCommentCount(article.getId(), 1);
+        trendingArticleTracker.recordComments(article.getId(), 1);
 
         return comment.getId();
     }
 
     /**
-     * commentId, content를 가지고 있는 새로운 Comment 객체를 파라미터로 받아 해당 내용으로 댓글을 수정한다.
-     * 추가로, 수정 시간을 지정한다.
+     * Comment 객체 목록과 게시물 id, 사용자의 id를 파라미터로 받아 댓글을 한 번에 등록한다.
+     * pooled-id 프로필에서는 insert가 hibernate.jdbc.batch_size 단위의 batch로 실행된다.
      * @author Jun Lee
      */
     @Transactional
-    public void updateComment(Comment newComment) {
-        Optional<Comment> optionalComment = commentRepository.findById(newComment.getId());
-        if(optionalComment.isEmpty()) {
-            throw new BlogResourceNotFoundException("해당 id의 게시물이 존재하지 않습니다.");
+    public List<Long> saveComments(List<Comment> comments, Long articleId, Long userId) {
+        Optional<Article> optionalArticle = articleRepository.findById(articleId);
+        if(optionalArticle.isEmpty()) {
+            throw new BlogResourceNotFoundException("해당 id의 게시글이 존재하지 않습니다.");
         }
+        Article article = optionalArticle.get();
 
-        Comment comment = optionalComment.get();
-        comment.setUpdatedTime(LocalDateTime.now());
-        comment.setContent(newComment.getContent());
+        Optional<User> optionalUser = userRepository.findById(userId);
+        if(optionalUser.isEmpty()) {
+            throw new BlogUserNotFoundException("해당 id의 회원이 존재하지 않습니다.");
+        }
+        User user = optionalUser.get();
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Comment comment : comments) {
+            comment.setCreatedTime(now);
+            comment.setUser(user);
+            comment.setArticle(article);
+            article.getComments().add(comment);
+            user.getComments().add(comment);
+        }
+        List<Long> ids = commentRepository.saveAll(comments).stream().map(Comment::getId).toList();
+        articleRepository.addCommentCount(article.getId(), comments.size());
+        trendingArticleTracker.recordComments(article.getId(), comments.size());
+        return ids;
     }
 
     /**
-     * 댓글 id를 파라미터로 받아 해당 댓글을 삭제한다.
+     * commentId, content를 가지고 있는 새로운 Comment 객체와 로그인 중인 사용자의 id를 파라미터로 받아 해당 내용으로 댓글을 수정한다.
+     * 추가로, 수정 시간을 지정한다.
+     * 댓글을 로딩하지 않고 UPDATE ... WHERE comment_id = ? AND user_id = ? 한 번으로 수정하며, 수정된 행 수로 소유 여부를 함께 확인한다.
+     * 수정된 행이 없는 경우에만 회원 존재 여부를 추가로 조회한다. (UserService.checkIsCommentFromUser와 같은 예외)
+     * @author Jun Lee
+     */
+    @Transactional
+    public void updateComment(Comment newComment, Long userId) {
+        int updated = commentRepository.updateByIdAndUserId(newComment.getId(), userId,
+                newComment.getContent(), LocalDateTime.now());
+        if(updated == 0) {
+            if(!userRepository.existsById(userId)) {
+                throw new BlogUserNotFoundException("해당 id의 회원이 존재하지 않습니다.");
+            }
+            throw new BlogNotAuthorizedException("로그인 중인 사용자의 댓글이 아닙니다.");
+        }
+    }
+
+    /**
+     * 댓글 id를 파라미터로 받아 해당 댓글을 삭제하고, 게시글의 댓글 수를 1 줄인다.
      * @author Jun Lee
      */
     @Transactional
     public void deleteComment(Long commentId) {
-        Optional<Comment> optionalComment = commentRepository.findById(commentId);
+        Optional<Comment> optionalComment = commentRepository.findWithUserAndArticleById(commentId);
         if(optionalComment.isEmpty()) {
             throw new BlogResourceNotFoundException("해당 id의 게시물이 존재하지 않습니다.");
         }
@@ -88,6 +136,30 @@ public class CommentService {
         comment.getArticle().getComments().remove(comment);
 
         commentRepository.deleteById(comment.getId());
+        articleRepository.addCommentCount(comment.getArticle().getId(), -1);
+    }
+
+    /**
+     * 게시글 id를 파라미터로 받아 해당 게시글의 댓글을 작성순으로 커서 기반 페이지 조회한다.
+     * cursorTime, cursorId가 없으면 첫 페이지를 조회한다. 한 번에 최대 MAX_PAGE_SIZE개까지만 읽는다.
+     * @author Jun Lee
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponseDto<CommentSummaryResponseDto> findComments(
+            Long articleId, LocalDateTime cursorTime, Long cursorId, int size
+    ) {
+        if(!articleRepository.existsById(articleId)) {
+            throw new BlogResourceNotFoundException("해당 id의 게시글이 존재하지 않습니다.");
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<CommentSummaryResponseDto> rows = (cursorTime == null || cursorId == null)
+                ? commentRepository.findSummaryFirstPageByArticleId(articleId, limit)
+                : commentRepository.findSummaryPageAfterByArticleId(articleId, cursorTime, cursorId, limit);
+        return CursorPageResponseDto.of(rows, pageSize,
+                CommentSummaryResponseDto::getCreatedTime, CommentSummaryResponseDto::getCommentId);
     }
 
     // 디버깅용. Comment 객체의 content 조회 메서드
@@ -1,74 +1,165 @@
 package springproject.urssublog.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import springproject.urssublog.auth.PasswordHasher;
+import springproject.urssublog.auth.Sha256PasswordEncoder;
 import springproject.urssublog.domain.User;
+import springproject.urssublog.event.ArticleChangedEvent;
+import springproject.urssublog.exception.classes.BlogDuplicatedUserException;
 import springproject.urssublog.exception.classes.BlogNotAuthorizedException;
 import springproject.urssublog.exception.classes.BlogResourceNotFoundException;
 import springproject.urssublog.exception.classes.BlogUserNotFoundException;
+import springproject.urssublog.repository.JpaArticleRepository;
+import springproject.urssublog.repository.JpaCommentRepository;
 import springproject.urssublog.repository.JpaUserRepository;
+import springproject.urssublog.sketch.UserIdentityBloomFilter;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
-import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
+@Slf4j
 @Service
+@Timed(value = "blog.service", histogram = true)
 @RequiredArgsConstructor
 public class UserService {
     private final JpaUserRepository userRepository;
+    private final JpaArticleRepository articleRepository;
+    private final JpaCommentRepository commentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PasswordHasher passwordHasher;
+    private final UserIdentityBloomFilter identityBloomFilter;
+
+    // 회원 탈퇴 시 한 트랜잭션에서 삭제할 최대 행 수
+    @Value("${blog.deletion.chunk-size:1000}")
+    private int deletionChunkSize = 1000;
 
     /**
      * User 객체를 파라미터로 받아 회원가입을 수행한다. 추가로, 비밀번호 암호화, 생성 시간 지정을 수행한다.
+     * 비밀번호 해시는 시간이 오래 걸리므로 트랜잭션(DB connection) 밖에서 먼저 계산하고, 저장만 repository의 트랜잭션에서 실행한다.
+     * 중복된 email, username은 Bloom filter에 있을 수 있는 경우에만 조회해 확인하고, 해시 계산, insert 전에 거부한다.
+     * 동시에 같은 값으로 가입하는 경우는 DB의 unique 제약(DataIntegrityViolationException)으로 처리된다.
      * @author Jun Lee
      */
-    @Transactional
     public void saveUser(User user) {
-        user.setPassword(encryptStringWithSha256(user.getPassword()));
+        if(identityBloomFilter.mightContainEmail(user.getEmail()) && userRepository.existsByEmail(user.getEmail())) {
+            throw new BlogDuplicatedUserException("이미 사용 중인 email입니다.");
+        }
+        if(identityBloomFilter.mightContainUsername(user.getUsername()) && userRepository.existsByUsername(user.getUsername())) {
+            throw new BlogDuplicatedUserException("이미 사용 중인 username입니다.");
+        }
+
+        user.setPassword(passwordHasher.encode(user.getPassword()));
         user.setCreatedTime(LocalDateTime.now());
         userRepository.save(user);
+        identityBloomFilter.put(user.getEmail(), user.getUsername());
     }
 
     /**
      * user id를 파라미터로 받아 회원 탈퇴(삭제)를 수행한다.
+     * 연관 엔티티를 로딩해 한 행씩 삭제하지 않고, 외래 키 의존 순서대로 id 목록 기반 DELETE를 실행한다.
+     * (회원이 작성한 댓글 → 회원의 게시글에 달린 댓글 → 회원의 게시글 → 회원)
+     * 각 chunk는 별도의 트랜잭션으로 실행되므로 작성한 글이 많은 회원도 한 트랜잭션이 오래 lock을 잡지 않는다.
+     * 대신 중간에 실패하면 이미 commit된 chunk는 rollback되지 않아, 회원은 남고 댓글, 게시글은 일부만 삭제된 상태가 된다.
+     * 이 상태에서 다시 호출하면 남은 행부터 이어서 삭제되므로, 실패한 경우 같은 회원 id로 다시 호출한다.
+     * (댓글 수 감소는 댓글 삭제와 같은 chunk 트랜잭션에서 실행되므로 다시 호출해도 두 번 줄지 않는다.)
      * @author Jun Lee
      */
-    @Transactional
     public void deleteUser(Long userId) {
-        if(userRepository.findById(userId).isEmpty()) {
+        if(!userRepository.existsById(userId)) {
             throw new BlogResourceNotFoundException("해당 id를 가진 사용자가 없습니다.");
         }
-        userRepository.deleteById(userId);
+
+        //다른 회원의 게시글에 남긴 댓글은 삭제 전에 해당 게시글의 댓글 수를 줄인다. 회원의 게시글은 함께 삭제되므로 줄이지 않는다.
+        int comments = deleteInChunks(
+                pageable -> commentRepository.findIdsByUserId(userId, pageable),
+                ids -> {
+                    articleRepository.subtractCommentCountsOfComments(ids);
+                    return commentRepository.bulkDeleteByIds(ids);
+                });
+        int commentsOnArticles = deleteInChunks(
+                pageable -> commentRepository.findIdsByArticleUserId(userId, pageable),
+                commentRepository::bulkDeleteByIds);
+        int articles = deleteInChunks(
+                pageable -> articleRepository.findIdsByUserId(userId, pageable),
+                ids -> {
+                    int deleted = articleRepository.bulkDeleteByIds(ids);
+                    eventPublisher.publishEvent(ArticleChangedEvent.deleted(ids));
+                    return deleted;
+                });
+        transactionTemplate.executeWithoutResult(status -> userRepository.bulkDeleteById(userId));
+        identityBloomFilter.recordDeletion();
+
+        log.debug("UserService, deleteUser() userId={} deleted comments={}, comments on articles={}, articles={}",
+                userId, comments, commentsOnArticles, articles);
+    }
+
+    // id를 deletionChunkSize개씩 조회해 삭제하는 것을 더 이상 조회되는 id가 없을 때까지 반복한다. chunk마다 트랜잭션이 분리된다.
+    // 조회와 삭제 사이에 다른 요청이 일부를 먼저 삭제해 chunk보다 적게 삭제될 수 있으므로, 삭제된 행 수가 아닌 조회 결과로 끝을 판단한다.
+    private int deleteInChunks(Function<Pageable, List<Long>> findIds, Function<List<Long>, Integer> deleteByIds) {
+        Pageable chunk = PageRequest.of(0, deletionChunkSize);
+        int total = 0;
+        while(true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = findIds.apply(chunk);
+                return ids.isEmpty() ? null : deleteByIds.apply(ids);
+            });
+            if(deleted == null) {
+                return total;
+            }
+            total += deleted;
+        }
     }
 
     /**
      * User 객체를 파라미터로 받아 로그인 성공 시 해당 객체를, 실패한 경우 예외를 던진다.
+     * 저장된 비밀번호가 이전 형식(SHA-256)이면 로그인에 성공했을 때 현재 형식(Argon2)으로 다시 해시해 저장한다.
+     * 없는 email이어도 같은 시간이 걸리도록 해시를 한 번 계산한 뒤 같은 예외를 던진다.
      * @author Jun Lee
      */
     public User userLoginCheck(User user) {
         Optional<User> optionalUser = userRepository.findByEmail(user.getEmail());
 
-        if(optionalUser.isPresent()
-                && optionalUser.get().getPassword().equals(encryptStringWithSha256(user.getPassword()))) {
-            return optionalUser.get();
+        if(optionalUser.isEmpty()) {
+            passwordHasher.matchesNone(user.getPassword());
+            throw new BlogUserNotFoundException("로그인 실패. 회원 정보가 없습니다.");
         }
-        else {
+        User loginUser = optionalUser.get();
+        if(!passwordHasher.matches(user.getPassword(), loginUser.getPassword())) {
             throw new BlogUserNotFoundException("로그인 실패. 회원 정보가 없습니다.");
         }
+        upgradePasswordIfNeeded(loginUser, user.getPassword());
+        return loginUser;
     }
 
-    // 암호화 메서드
-    public String encryptStringWithSha256(String s) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = digest.digest(s.getBytes());
-            return Base64.getEncoder().encodeToString(hashBytes);
+    // 새 해시는 트랜잭션 밖에서 계산하고, 저장된 값이 그대로인 경우에만 교체한다.
+    private void upgradePasswordIfNeeded(User user, String rawPassword) {
+        String oldPassword = user.getPassword();
+        if(!passwordHasher.needsUpgrade(oldPassword)) {
+            return;
         }
-        catch (NoSuchAlgorithmException e) {
-            return null;
+        String newPassword = passwordHasher.encode(rawPassword);
+        Integer updated = transactionTemplate.execute(status ->
+                userRepository.updatePassword(user.getId(), oldPassword, newPassword));
+        if(updated != null && updated == 1) {
+            user.setPassword(newPassword);
         }
+        log.debug("UserService, upgraded password encoding of userId={}, updated={}", user.getId(), updated);
+    }
+
+    // 이전 비밀번호 형식(SHA-256). 기존 회원 데이터와의 호환을 위해 남겨 둔다.
+    public String encryptStringWithSha256(String s) {
+        return Sha256PasswordEncoder.sha256(s);
     }
 
     // 디버깅용. User 객체의 username 조회 메서드
@@ -78,28 +169,26 @@ public class UserService {
     }
 
     // 해당 id의 게시물이 지정한 id 사용자의 소유인지 판별
+    // (게시글 id, user_id)에 대한 존재 여부 쿼리 한 번으로 확인하고, 실패한 경우에만 회원 존재 여부를 추가로 조회한다.
     public void checkIsArticleFromUser(Long articleId, Long userId) {
-        Optional<User> optionalUser = userRepository.findById(userId);
-        if(optionalUser.isEmpty()) {
-            throw new BlogUserNotFoundException("해당 id의 회원이 존재하지 않습니다.");
+        if(articleRepository.existsByIdAndUserId(articleId, userId)) {
+            return;
         }
-        if(optionalUser.get().getArticles().stream().noneMatch(
-                article -> article.getId().equals(articleId))
-        ) {
-            throw new BlogNotAuthorizedException("로그인 중인 사용자의 게시글이 아닙니다.");
+        if(!userRepository.existsById(userId)) {
+            throw new BlogUserNotFoundException("해당 id의 회원이 존재하지 않습니다.");
         }
+        throw new BlogNotAuthorizedException("로그인 중인 사용자의 게시글이 아닙니다.");
     }
 
     // 해당 id의 댓글이 지정한 id 사용자의 소유인지 판별
+    // (댓글 id, user_id)에 대한 존재 여부 쿼리 한 번으로 확인하고, 실패한 경우에만 회원 존재 여부를 추가로 조회한다.
     public void checkIsCommentFromUser(Long commentId, Long userId) {
-        Optional<User> optionalUser = userRepository.findById(userId);
-        if(optionalUser.isEmpty()) {
-            throw new BlogUserNotFoundException("해당 id의 회원이 존재하지 않습니다.");
+        if(commentRepository.existsByIdAndUserId(commentId, userId)) {
+            return;
         }
-        if(optionalUser.get().getComments().stream().noneMatch(
-                comment -> comment.getId().equals(commentId)
-        )) {
-            throw new BlogNotAuthorizedException("로그인 중인 사용자의 댓글이 아닙니다.");
+        if(!userRepository.existsById(userId)) {
+            throw new BlogUserNotFoundException("해당 id의 회원이 존재하지 않습니다.");
         }
+        throw new BlogNotAuthorizedException("로그인 중인 사용자의 댓글이 아닙니다.");
     }
 }
@@ -0,0 +1,35 @@
+package springproject.urssublog.session;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+
+// blog.session.store=jdbc 인 경우 HttpSession을 DB(blog_session 테이블)에 저장한다. 설정하지 않으면 기존처럼 Tomcat 메모리 session을 사용한다.
+@Configuration
+@ConditionalOnProperty(name = "blog.session.store", havingValue = "jdbc")
+@EnableSpringHttpSession
+public class JdbcSessionConfig {
+    @Bean
+    public NearCachedJdbcSessionRepository sessionRepository(
+            DataSource dataSource,
+            @Value("${blog.session.jdbc.initialize-schema:true}") boolean initializeSchema,
+            @Value("${server.servlet.session.timeout:30m}") Duration timeout,
+            @Value("${blog.session.jdbc.near-cache.ttl:10s}") Duration nearCacheTtl,
+            @Value("${blog.session.jdbc.near-cache.maximum-size:10000}") long nearCacheMaximumSize
+    ) {
+        if(initializeSchema) {
+            new ResourceDatabasePopulator(new ClassPathResource("db/schema-session.sql")).execute(dataSource);
+        }
+        return new NearCachedJdbcSessionRepository(new JdbcTemplate(dataSource), timeout,
+                nearCacheTtl, nearCacheMaximumSize, Clock.systemUTC());
+    }
+}
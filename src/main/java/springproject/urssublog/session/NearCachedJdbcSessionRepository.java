@@ -0,0 +1,297 @@
+package springproject.urssublog.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DB(blog_session 테이블)에 session을 저장하는 spring session 저장소. 여러 노드가 같은 session을 공유하고, 노드가 재시작되어도 session이 유지된다.
+ *
+ * 1. near cache : 조회한 session을 노드의 메모리에 nearCacheTtl 동안 보관해, 같은 session의 요청마다 DB를 조회하지 않는다.
+ *    다른 노드에서 변경, 삭제(로그아웃)된 내용은 최대 nearCacheTtl 동안 반영되지 않을 수 있다.
+ * 2. 마지막 접근 시간 : 속성이 바뀌지 않은 요청은 마지막 접근 시간만 메모리에 모아 두었다가 flushLastAccessTimes()에서 batch update로 반영한다.
+ *    로그인, 로그아웃처럼 속성이 바뀐 경우에는 바로 DB에 반영한다.
+ * 3. 만료된 session은 deleteExpiredSessions()에서 주기적으로 chunk 단위로 삭제한다.
+ * @author Jun Lee
+ */
+@Slf4j
+public class NearCachedJdbcSessionRepository implements SessionRepository<NearCachedJdbcSessionRepository.BlogSession> {
+    private static final String INSERT_SESSION = "INSERT INTO blog_session "
+            + "(session_id, creation_time, last_access_time, max_inactive_interval, expiry_time, attributes) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SESSION = "UPDATE blog_session "
+            + "SET session_id = ?, last_access_time = ?, max_inactive_interval = ?, expiry_time = ?, attributes = ? WHERE session_id = ?";
+    private static final String UPDATE_LAST_ACCESS_TIME = "UPDATE blog_session "
+            + "SET last_access_time = ?, expiry_time = ? WHERE session_id = ? AND last_access_time < ?";
+    private static final String SELECT_SESSION = "SELECT creation_time, last_access_time, max_inactive_interval, attributes "
+            + "FROM blog_session WHERE session_id = ?";
+    private static final String DELETE_SESSION = "DELETE FROM blog_session WHERE session_id = ?";
+    private static final String DELETE_EXPIRED_SESSIONS = "DELETE FROM blog_session WHERE expiry_time < ? LIMIT ?";
+    private static final int SWEEP_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration defaultMaxInactiveInterval;
+    private final Clock clock;
+    // 다른 요청과 공유되므로 직접 수정하지 않고, 복사본을 BlogSession으로 감싸 반환한다.
+    private final Cache<String, MapSession> nearCache;
+    // 아직 DB에 반영하지 않은 마지막 접근 시간
+    private final Map<String, PendingAccess> pendingAccessTimes = new ConcurrentHashMap<>();
+
+    private final SerializingConverter serializer = new SerializingConverter();
+    private final DeserializingConverter deserializer = new DeserializingConverter();
+
+    private record PendingAccess(long lastAccessTime, long maxInactiveSeconds) {
+        private PendingAccess latest(PendingAccess other) {
+            return (other.lastAccessTime > lastAccessTime ? other : this);
+        }
+    }
+
+    public NearCachedJdbcSessionRepository(JdbcTemplate jdbcTemplate, Duration defaultMaxInactiveInterval,
+                                           Duration nearCacheTtl, long nearCacheMaximumSize, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+        this.clock = clock;
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(nearCacheMaximumSize)
+                .expireAfterWrite(nearCacheTtl)
+                .build();
+    }
+
+    @Override
+    public BlogSession createSession() {
+        MapSession session = new MapSession();
+        Instant now = clock.instant();
+        session.setCreationTime(now);
+        session.setLastAccessedTime(now);
+        session.setMaxInactiveInterval(defaultMaxInactiveInterval);
+        return new BlogSession(session, true, clock);
+    }
+
+    @Override
+    public void save(BlogSession session) {
+        MapSession delegate = session.delegate;
+        if(session.isNew) {
+            jdbcTemplate.update(INSERT_SESSION, delegate.getId(), delegate.getCreationTime().toEpochMilli(),
+                    delegate.getLastAccessedTime().toEpochMilli(), (int) delegate.getMaxInactiveInterval().toSeconds(),
+                    expiryTime(delegate), serializeAttributes(delegate));
+            session.isNew = false;
+        }
+        else if(session.changed) {
+            int updated = jdbcTemplate.update(UPDATE_SESSION, delegate.getId(), delegate.getLastAccessedTime().toEpochMilli(),
+                    (int) delegate.getMaxInactiveInterval().toSeconds(), expiryTime(delegate),
+                    serializeAttributes(delegate), session.originalId);
+            if(updated == 0) {
+                log.debug("NearCachedJdbcSessionRepository, session {} was already deleted.", session.originalId);
+            }
+            pendingAccessTimes.remove(session.originalId);
+            if(!session.originalId.equals(delegate.getId())) {
+                nearCache.invalidate(session.originalId);
+            }
+        }
+        else {
+            pendingAccessTimes.merge(delegate.getId(), new PendingAccess(delegate.getLastAccessedTime().toEpochMilli(),
+                    delegate.getMaxInactiveInterval().toSeconds()), PendingAccess::latest);
+        }
+        session.originalId = delegate.getId();
+        session.changed = false;
+        nearCache.put(delegate.getId(), new MapSession(delegate));
+    }
+
+    @Override
+    public BlogSession findById(String id) {
+        MapSession cached = nearCache.getIfPresent(id);
+        MapSession session = (cached != null ? new MapSession(cached) : load(id));
+        if(session == null) {
+            return null;
+        }
+        if(isExpired(session)) {
+            deleteById(id);
+            return null;
+        }
+        if(cached == null) {
+            nearCache.put(id, new MapSession(session));
+        }
+        return new BlogSession(session, false, clock);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        nearCache.invalidate(id);
+        pendingAccessTimes.remove(id);
+        jdbcTemplate.update(DELETE_SESSION, id);
+    }
+
+    /**
+     * 모아 둔 마지막 접근 시간을 한 번의 batch update로 DB에 반영한다.
+     * @author Jun Lee
+     */
+    @Scheduled(fixedDelayString = "${blog.session.jdbc.flush-interval:PT5S}")
+    public void flushLastAccessTimes() {
+        if(pendingAccessTimes.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>();
+        for (String id : pendingAccessTimes.keySet()) {
+            PendingAccess access = pendingAccessTimes.remove(id);
+            if(access != null) {
+                long expiryTime = access.lastAccessTime() + access.maxInactiveSeconds() * 1000;
+                batch.add(new Object[]{access.lastAccessTime(), expiryTime, id, access.lastAccessTime()});
+            }
+        }
+        jdbcTemplate.batchUpdate(UPDATE_LAST_ACCESS_TIME, batch);
+        log.debug("NearCachedJdbcSessionRepository, flushed last access time of {} sessions.", batch.size());
+    }
+
+    /**
+     * 만료된 session을 SWEEP_CHUNK_SIZE개씩 삭제한다. 아직 반영하지 않은 마지막 접근 시간을 먼저 반영해, 사용 중인 session이 삭제되지 않도록 한다.
+     * @author Jun Lee
+     */
+    @Scheduled(fixedDelayString = "${blog.session.jdbc.cleanup-interval:PT1M}")
+    public void deleteExpiredSessions() {
+        flushLastAccessTimes();
+
+        long now = clock.millis();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_EXPIRED_SESSIONS, now, SWEEP_CHUNK_SIZE);
+            total += deleted;
+        } while (deleted == SWEEP_CHUNK_SIZE);
+        log.debug("NearCachedJdbcSessionRepository, deleted {} expired sessions.", total);
+    }
+
+    // 종료 시 모아 둔 마지막 접근 시간을 반영한다.
+    @PreDestroy
+    public void destroy() {
+        flushLastAccessTimes();
+    }
+
+    private MapSession load(String id) {
+        List<MapSession> sessions = jdbcTemplate.query(SELECT_SESSION, (rs, rowNum) -> {
+            MapSession session = new MapSession(id);
+            session.setCreationTime(Instant.ofEpochMilli(rs.getLong("creation_time")));
+            session.setLastAccessedTime(Instant.ofEpochMilli(rs.getLong("last_access_time")));
+            session.setMaxInactiveInterval(Duration.ofSeconds(rs.getInt("max_inactive_interval")));
+            deserializeAttributes(rs.getBytes("attributes")).forEach(session::setAttribute);
+            return session;
+        }, id);
+        return (sessions.isEmpty() ? null : sessions.get(0));
+    }
+
+    private boolean isExpired(MapSession session) {
+        return !clock.instant().isBefore(session.getLastAccessedTime().plus(session.getMaxInactiveInterval()));
+    }
+
+    private static long expiryTime(MapSession session) {
+        return session.getLastAccessedTime().plus(session.getMaxInactiveInterval()).toEpochMilli();
+    }
+
+    private byte[] serializeAttributes(MapSession session) {
+        HashMap<String, Object> attributes = new HashMap<>();
+        for (String name : session.getAttributeNames()) {
+            attributes.put(name, session.getAttribute(name));
+        }
+        return serializer.convert(attributes);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> deserializeAttributes(byte[] bytes) {
+        return (Map<String, Object>) deserializer.convert(bytes);
+    }
+
+    /**
+     * 요청 하나에서 사용하는 session. 속성, 만료 시간, id가 바뀌었는지를 기록해 저장 방식을 결정한다.
+     * @author Jun Lee
+     */
+    public static final class BlogSession implements Session {
+        private final MapSession delegate;
+        private final Clock clock;
+        private boolean isNew;
+        private boolean changed;
+        private String originalId;
+
+        private BlogSession(MapSession delegate, boolean isNew, Clock clock) {
+            this.delegate = delegate;
+            this.isNew = isNew;
+            this.clock = clock;
+            this.originalId = delegate.getId();
+        }
+
+        @Override
+        public String getId() {
+            return delegate.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            changed = true;
+            return delegate.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return delegate.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return delegate.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            changed = true;
+            delegate.setAttribute(attributeName, attributeValue);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            changed = true;
+            delegate.removeAttribute(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return delegate.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            delegate.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return delegate.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            changed = true;
+            delegate.setMaxInactiveInterval(interval);
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return delegate.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return !clock.instant().isBefore(delegate.getLastAccessedTime().plus(delegate.getMaxInactiveInterval()));
+        }
+    }
+}
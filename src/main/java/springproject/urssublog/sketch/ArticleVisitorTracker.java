@@ -0,0 +1,183 @@
+package springproject.urssublog.sketch;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import springproject.urssublog.domain.ArticleVisitorSketch;
+import springproject.urssublog.event.ArticleChangedEvent;
+import springproject.urssublog.repository.JpaArticleVisitorSketchRepository;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 게시글별 방문 회원 수(순 방문자 수) 추정. 로그인한 회원의 게시글 조회를 게시글별, 날짜별 HyperLogLog에 기록한다.
+ * (article_id, user_id) 방문 기록을 저장하지 않으므로, 방문자 수와 관계없이 sketch 하나는 최대 2^precision byte(기본 4KB)이다.
+ *
+ * 1. 기록 : 메모리의 (게시글, 날짜) sketch에 추가한다. ConcurrentHashMap.compute()로 추가하므로 flush 중인 sketch와 겹치지 않는다.
+ * 2. flush : 주기적으로 메모리의 sketch를 꺼내 article_visitor_sketch 행과 병합(register별 최댓값)해 저장하고, 메모리에서는 제거한다.
+ *    HyperLogLog 병합은 같은 값을 여러 번 합쳐도 결과가 같으므로, 저장에 실패하면 메모리에 다시 병합해 다음 flush에서 재시도한다.
+ * 3. 조회 : 기간 안의 날짜별 sketch(DB + 아직 flush하지 않은 메모리)를 병합해 기간 전체의 순 방문자 수를 추정한다.
+ * @author Jun Lee
+ */
+@Slf4j
+@Component
+public class ArticleVisitorTracker {
+    private static final int MAX_SAVE_ATTEMPTS = 3;
+
+    private record SketchKey(Long articleId, LocalDate visitDate) {
+    }
+
+    private final JpaArticleVisitorSketchRepository sketchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int precision;
+    private final Clock clock;
+    // 아직 DB에 병합하지 않은 sketch
+    private final Map<SketchKey, HyperLogLog> pending = new ConcurrentHashMap<>();
+
+    public ArticleVisitorTracker(
+            JpaArticleVisitorSketchRepository sketchRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${blog.article.visitor.precision:12}") int precision
+    ) {
+        this.sketchRepository = sketchRepository;
+        this.transactionTemplate = transactionTemplate;
+        // 설정이 잘못된 경우 첫 방문 기록이 아니라 시작 시 실패하도록 미리 만들어 본다.
+        new HyperLogLog(precision);
+        this.precision = precision;
+        this.clock = Clock.systemDefaultZone();
+    }
+
+    /**
+     * 오늘 해당 회원이 게시글을 조회한 것으로 기록한다.
+     * @author Jun Lee
+     */
+    public void recordVisit(Long articleId, Long userId) {
+        pending.compute(new SketchKey(articleId, LocalDate.now(clock)), (key, sketch) -> {
+            HyperLogLog current = (sketch != null ? sketch : new HyperLogLog(precision));
+            current.add(userId);
+            return current;
+        });
+    }
+
+    /**
+     * to(포함)까지 최근 days[i]일 동안 게시글을 조회한 서로 다른 회원 수를 기간별로 추정한다. days는 오름차순이어야 한다.
+     * 가장 긴 기간의 sketch만 DB에서 한 번 조회하고, to부터 하루씩 거슬러 병합하면서 짧은 기간의 추정값을 차례로 계산한다.
+     * @author Jun Lee
+     */
+    public long[] estimateRecentVisitors(Long articleId, LocalDate to, int... days) {
+        for (int i = 0; i < days.length; i++) {
+            if(days[i] <= 0 || (i > 0 && days[i] < days[i - 1])) {
+                throw new IllegalArgumentException("days must be positive and ascending : " + Arrays.toString(days));
+            }
+        }
+        if(days.length == 0) {
+            return new long[0];
+        }
+        Map<LocalDate, HyperLogLog> stored = new HashMap<>();
+        LocalDate from = to.minusDays(days[days.length - 1] - 1);
+        for (ArticleVisitorSketch row : sketchRepository.findByArticleIdAndVisitDateBetween(articleId, from, to)) {
+            stored.put(row.getVisitDate(), HyperLogLog.fromBytes(row.getRegisters()));
+        }
+
+        HyperLogLog union = new HyperLogLog(precision);
+        long[] estimates = new long[days.length];
+        int next = 0;
+        for (int age = 0; next < days.length; age++) {
+            LocalDate date = to.minusDays(age);
+            HyperLogLog sketchOfDay = stored.get(date);
+            if(sketchOfDay != null) {
+                union.merge(sketchOfDay);
+            }
+            pending.computeIfPresent(new SketchKey(articleId, date), (key, sketch) -> {
+                union.merge(sketch);
+                return sketch;
+            });
+            while (next < days.length && days[next] == age + 1) {
+                estimates[next++] = union.estimate();
+            }
+        }
+        return estimates;
+    }
+
+    public LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    /**
+     * 메모리의 sketch를 DB의 같은 (게시글, 날짜) 행에 병합해 저장하고, 저장한 sketch 수를 반환한다.
+     * @author Jun Lee
+     */
+    @Scheduled(fixedDelayString = "${blog.article.visitor.flush-interval:PT1M}")
+    public int flush() {
+        int flushed = 0;
+        for (SketchKey key : pending.keySet()) {
+            HyperLogLog sketch = pending.remove(key);
+            if(sketch == null) {
+                continue;
+            }
+            if(save(key, sketch)) {
+                flushed++;
+            }
+            else {
+                pending.merge(key, sketch, HyperLogLog::merge);
+            }
+        }
+        log.debug("ArticleVisitorTracker, flushed {} visitor sketches.", flushed);
+        return flushed;
+    }
+
+    // 다른 노드가 같은 행을 먼저 저장(unique 제약)하거나 수정(version)한 경우 다시 읽어 병합한다.
+    private boolean save(SketchKey key, HyperLogLog sketch) {
+        for (int attempt = 1; attempt <= MAX_SAVE_ATTEMPTS; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    ArticleVisitorSketch row = sketchRepository.findByArticleIdAndVisitDate(key.articleId(), key.visitDate())
+                            .orElseGet(() -> new ArticleVisitorSketch(key.articleId(), key.visitDate()));
+                    HyperLogLog merged = (row.getRegisters() != null)
+                            ? HyperLogLog.fromBytes(row.getRegisters()).merge(sketch)
+                            : sketch.copy();
+                    row.setRegisters(merged.toBytes());
+                    sketchRepository.saveAndFlush(row);
+                });
+                return true;
+            }
+            catch (DataAccessException e) {
+                log.debug("ArticleVisitorTracker, conflict while saving {} (attempt {}).", key, attempt, e);
+            }
+        }
+        log.warn("ArticleVisitorTracker, failed to save visitor sketch {}. It will be retried.", key);
+        return false;
+    }
+
+    /**
+     * 삭제된 게시글의 sketch를 메모리와 DB에서 삭제한다. 게시글을 삭제하는 트랜잭션 안에서 실행된다.
+     * @author Jun Lee
+     */
+    @EventListener
+    public void removeOnDelete(ArticleChangedEvent event) {
+        if(event.getChangeType() != ArticleChangedEvent.ChangeType.DELETED) {
+            return;
+        }
+        Set<Long> articleIds = new HashSet<>(event.getArticleIds());
+        pending.keySet().removeIf(key -> articleIds.contains(key.articleId()));
+        sketchRepository.bulkDeleteByArticleIds(event.getArticleIds());
+    }
+
+    // 종료 시 남은 sketch를 저장한다.
+    @PreDestroy
+    public void destroy() {
+        flush();
+    }
+}
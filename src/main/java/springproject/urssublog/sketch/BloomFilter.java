@@ -0,0 +1,93 @@
+package springproject.urssublog.sketch;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 문자열 Bloom filter. mightContain()이 false면 추가된 적이 없는 값이고, true면 추가된 값이거나 (약 fpp 확률의) 오탐이다.
+ * bit 배열을 AtomicLongArray로 두어, 여러 스레드에서 lock 없이 동시에 추가, 조회할 수 있다. 삭제는 지원하지 않는다.
+ * @author Jun Lee
+ */
+public class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashCount;
+
+    private BloomFilter(long bitSize, int hashCount) {
+        this.words = new AtomicLongArray((int) ((bitSize + 63) >>> 6));
+        this.bitSize = (long) words.length() << 6;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * expectedInsertions개를 추가했을 때 오탐 확률이 fpp가 되도록 bit 수와 hash 함수 수를 정해 생성한다.
+     * @author Jun Lee
+     */
+    public static BloomFilter create(long expectedInsertions, double fpp) {
+        if(expectedInsertions <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("invalid bloom filter parameters : " + expectedInsertions + ", " + fpp);
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        return new BloomFilter(Math.max(64, bits), hashes);
+    }
+
+    public void put(String value) {
+        long hash1 = hash(value, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            setBit(Long.remainderUnsigned(hash1 + i * hash2, bitSize));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash1 = hash(value, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            if(!getBit(Long.remainderUnsigned(hash1 + i * hash2, bitSize))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current = words.get(word);
+        while ((current & mask) == 0) {
+            long witness = words.compareAndExchange(word, current, current | mask);
+            if(witness == current) {
+                return;
+            }
+            current = witness;
+        }
+    }
+
+    private boolean getBit(long index) {
+        return (words.get((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    // 문자 단위로 섞은 뒤 murmur3 finalizer로 마무리하는 64비트 hash
+    private static long hash(String value, long seed) {
+        long h = seed ^ value.length();
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x87C37B91114253D5L;
+            h = Long.rotateLeft(h, 31);
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
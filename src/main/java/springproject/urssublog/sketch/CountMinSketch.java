@@ -0,0 +1,76 @@
+package springproject.urssublog.sketch;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * long key의 빈도를 고정된 메모리(depth x width개의 counter)로 추정하는 Count-Min Sketch.
+ * estimate()는 실제 빈도보다 작게 추정하지 않으며, 전체 추가 수 N에 대해 (약 e/width) x N 이내로 크게 추정할 수 있다.
+ * counter를 AtomicLongArray로 두어, 여러 스레드에서 lock 없이 동시에 추가, 조회할 수 있다.
+ * @author Jun Lee
+ */
+public class CountMinSketch {
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x87C37B91114253D5L, 0x4CF5AD432745937FL
+    };
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int depth;
+
+    /**
+     * width는 2의 거듭제곱으로 올림하며, depth는 최대 8이다.
+     * @author Jun Lee
+     */
+    public CountMinSketch(int width, int depth) {
+        if(width <= 0 || depth <= 0 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("invalid count-min sketch parameters : " + width + ", " + depth);
+        }
+        this.width = (width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1);
+        this.depth = depth;
+        this.counters = new AtomicLongArray(this.width * depth);
+    }
+
+    public void add(long key, long count) {
+        for (int row = 0; row < depth; row++) {
+            counters.addAndGet(index(key, row), count);
+        }
+    }
+
+    public long estimate(long key) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.get(index(key, row)));
+        }
+        return min;
+    }
+
+    public void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    private int index(long key, int row) {
+        return row * width + (int) (hash(key, SEEDS[row]) & (width - 1));
+    }
+
+    // murmur3 finalizer
+    private static long hash(long key, long seed) {
+        long h = key ^ seed;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
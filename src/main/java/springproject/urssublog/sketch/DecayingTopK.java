@@ -0,0 +1,262 @@
+package springproject.urssublog.sketch;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 최근 빈도가 높은 long key 상위 capacity개를 고정된 메모리로 추정하는 top-K.
+ *
+ * 1. 빈도 : 시간을 window 단위로 나누고 window마다 Count-Min Sketch를 둔다. 최근 windowCount개의 window만 유지하며(ring),
+ *    오래된 window의 sketch는 다시 사용할 때 비운다. 점수는 window별 추정 빈도에 decay^(지난 window 수)를 곱해 더한 값이다.
+ * 2. 상위 key : 점수가 높은 capacity개의 key를 후보로 유지한다. 후보의 점수는 저장하지 않고 필요할 때 sketch에서 계산하므로,
+ *    인기 게시글처럼 이미 후보인 key는 lock 없이 sketch에만 추가하고 끝난다. 후보가 가득 찬 경우, 후보가 아닌 key는 점수가
+ *    admissionScore(마지막으로 계산한 후보의 최솟값)보다 클 때만 lock을 잡고 후보들의 점수를 다시 계산해 가장 낮은 후보와 비교한다.
+ *    같은 window 안에서는 점수가 줄지 않으므로 admissionScore는 실제 최솟값 이하이며, lock 안에서 다시 계산한 값으로 올라간다.
+ * 3. window가 바뀌면 첫 추가 또는 조회에서 점수가 0이 된 후보를 제거한다. top()은 후보의 점수를 다시 계산해 정렬한다.
+ *
+ * key 수와 관계없이 메모리는 sketch(windowCount x depth x width개의 counter)와 후보(capacity개)로 고정된다.
+ * lock은 synchronized 대신 ReentrantLock을 사용해 가상 스레드가 carrier 스레드에 고정되지 않도록 한다. (window를 비우는 경우 포함)
+ * window가 바뀌는 순간에 동시에 추가된 값 일부는 이전 window에 더해질 수 있다.
+ * @author Jun Lee
+ */
+public class DecayingTopK {
+    public record Entry(long key, double score) {
+    }
+
+    private final CountMinSketch[] windows;
+    // window마다 현재 누적 중인 epoch(시각 / windowMillis). 아직 사용하지 않은 window는 Long.MIN_VALUE
+    private final AtomicLongArray windowEpochs;
+    private final long windowMillis;
+    // weights[age] = decay^age
+    private final double[] weights;
+    private final int capacity;
+    private final Clock clock;
+
+    // 상위 key 후보. 변경(추가, 제거)은 lock 안에서만 하고, 포함 여부는 lock 없이 확인한다.
+    private final Set<Long> candidates = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock lock = new ReentrantLock();
+    // 후보가 가득 찬 경우 마지막으로 계산한 후보 점수의 최솟값, 아니면 0. 후보가 아닌 key가 이 값 이하이면 lock을 잡지 않는다.
+    private volatile double admissionScore;
+    // 점수가 0이 된 후보를 마지막으로 정리한 기준 epoch
+    private volatile long candidatesEpoch = Long.MIN_VALUE;
+
+    public DecayingTopK(int capacity, Duration window, int windowCount, double decay, int sketchWidth, int sketchDepth, Clock clock) {
+        if(capacity <= 0 || windowCount <= 0 || window.toMillis() <= 0 || decay <= 0 || decay > 1) {
+            throw new IllegalArgumentException("invalid top-k parameters : " + capacity + ", " + window + ", " + windowCount + ", " + decay);
+        }
+        this.windows = new CountMinSketch[windowCount];
+        for (int i = 0; i < windowCount; i++) {
+            windows[i] = new CountMinSketch(sketchWidth, sketchDepth);
+        }
+        this.windowEpochs = new AtomicLongArray(windowCount);
+        for (int i = 0; i < windowCount; i++) {
+            windowEpochs.set(i, Long.MIN_VALUE);
+        }
+        this.windowMillis = window.toMillis();
+        this.weights = new double[windowCount];
+        for (int age = 0; age < windowCount; age++) {
+            weights[age] = Math.pow(decay, age);
+        }
+        this.capacity = capacity;
+        this.clock = clock;
+    }
+
+    /**
+     * 현재 시각에 key가 count번 발생한 것으로 추가한다.
+     * @author Jun Lee
+     */
+    public void add(long key, long count) {
+        add(key, count, clock.millis());
+    }
+
+    /**
+     * timeMillis 시각에 key가 count번 발생한 것으로 추가한다. 유지하는 window보다 오래된 시각이면 무시한다. (시작 시 복원용)
+     * @author Jun Lee
+     */
+    public void add(long key, long count, long timeMillis) {
+        long now = currentEpoch();
+        long epoch = Math.min(Math.floorDiv(timeMillis, windowMillis), now);
+        if(epoch <= now - windows.length) {
+            return;
+        }
+        CountMinSketch window = windowFor(epoch);
+        if(window == null) {
+            return;
+        }
+        window.add(key, count);
+        offer(key, now);
+    }
+
+    /**
+     * 점수가 높은 순으로 최대 size개를 반환한다.
+     * @author Jun Lee
+     */
+    public List<Entry> top(int size) {
+        long now = currentEpoch();
+        List<Entry> entries;
+        lock.lock();
+        try {
+            refreshIfStale(now);
+            entries = new ArrayList<>(candidates.size());
+            for (Long key : candidates) {
+                entries.add(new Entry(key, score(key, now)));
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+        entries.sort(Comparator.comparingDouble(Entry::score).reversed());
+        return (entries.size() > size ? entries.subList(0, size) : entries);
+    }
+
+    // 현재 시각 기준 key의 점수
+    public double score(long key) {
+        return score(key, currentEpoch());
+    }
+
+    /**
+     * key를 후보에서 제거한다. (삭제된 게시글 등) sketch에 누적된 빈도는 남는다.
+     * @author Jun Lee
+     */
+    public void remove(Collection<Long> keys) {
+        long now = currentEpoch();
+        lock.lock();
+        try {
+            refreshIfStale(now);
+            candidates.removeAll(keys);
+            updateAdmissionScore(now);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return candidates.size();
+    }
+
+    private long currentEpoch() {
+        return Math.floorDiv(clock.millis(), windowMillis);
+    }
+
+    // epoch의 window. 다른 epoch에 사용하던 window는 비운 뒤 반환하고, 더 최근 epoch이 사용 중이면 null을 반환한다.
+    // window가 바뀔 때만 lock을 잡는다.
+    private CountMinSketch windowFor(long epoch) {
+        int slot = (int) Math.floorMod(epoch, (long) windows.length);
+        long current = windowEpochs.get(slot);
+        if(current == epoch) {
+            return windows[slot];
+        }
+        if(current > epoch) {
+            return null;
+        }
+        lock.lock();
+        try {
+            current = windowEpochs.get(slot);
+            if(current < epoch) {
+                windows[slot].clear();
+                windowEpochs.set(slot, epoch);
+            }
+            else if(current > epoch) {
+                return null;
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+        return windows[slot];
+    }
+
+    private double score(long key, long now) {
+        double score = 0;
+        for (int age = 0; age < windows.length; age++) {
+            long epoch = now - age;
+            int slot = (int) Math.floorMod(epoch, (long) windows.length);
+            if(windowEpochs.get(slot) == epoch) {
+                score += weights[age] * windows[slot].estimate(key);
+            }
+        }
+        return score;
+    }
+
+    private void offer(long key, long now) {
+        if(candidatesEpoch == now) {
+            // 이미 후보이면 점수는 조회할 때 sketch에서 계산하므로 더 할 일이 없다.
+            if(candidates.contains(key) || score(key, now) <= admissionScore) {
+                return;
+            }
+        }
+        lock.lock();
+        try {
+            refreshIfStale(now);
+            admitIfHigher(key, now);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // 후보가 가득 차지 않았으면 추가하고, 가득 찼으면 점수가 가장 낮은 후보보다 높을 때 교체한다. lock 안에서 호출한다.
+    private void admitIfHigher(long key, long now) {
+        if(candidates.contains(key)) {
+            return;
+        }
+        double score = score(key, now);
+        if(score <= 0) {
+            return;
+        }
+        if(candidates.size() < capacity) {
+            candidates.add(key);
+            updateAdmissionScore(now);
+            return;
+        }
+        long minKey = 0;
+        double min = Double.MAX_VALUE;
+        double secondMin = Double.MAX_VALUE;
+        for (Long candidate : candidates) {
+            double candidateScore = score(candidate, now);
+            if(candidateScore < min) {
+                secondMin = min;
+                min = candidateScore;
+                minKey = candidate;
+            }
+            else if(candidateScore < secondMin) {
+                secondMin = candidateScore;
+            }
+        }
+        if(score > min) {
+            candidates.remove(minKey);
+            candidates.add(key);
+            admissionScore = Math.min(score, secondMin);
+        }
+        else {
+            admissionScore = min;
+        }
+    }
+
+    // window가 바뀌었으면 점수가 0이 된 후보를 제거하고 admissionScore를 새 기준으로 다시 계산한다. lock 안에서 호출한다.
+    private void refreshIfStale(long now) {
+        if(candidatesEpoch == now) {
+            return;
+        }
+        candidates.removeIf(key -> score(key, now) <= 0);
+        updateAdmissionScore(now);
+        candidatesEpoch = now;
+    }
+
+    private void updateAdmissionScore(long now) {
+        if(candidates.size() < capacity) {
+            admissionScore = 0;
+            return;
+        }
+        double min = Double.MAX_VALUE;
+        for (Long candidate : candidates) {
+            min = Math.min(min, score(candidate, now));
+        }
+        admissionScore = min;
+    }
+}
@@ -0,0 +1,158 @@
+package springproject.urssublog.sketch;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 서로 다른 long 값의 수를 2^precision byte의 register로 추정하는 HyperLogLog. 표준 오차는 약 1.04 / sqrt(2^precision)이다.
+ * 같은 precision의 sketch끼리 merge()로 합집합을 만들 수 있어, 일별 sketch를 합쳐 주간, 월간 값을 추정할 수 있다.
+ *
+ * toBytes()는 값이 적은 sketch를 (index, register) 쌍만 담은 sparse 형식으로, 나머지는 register 배열 그대로(dense) 직렬화한다.
+ * 여러 스레드에서 동시에 사용하려면 외부에서 동기화해야 한다.
+ * @author Jun Lee
+ */
+public class HyperLogLog {
+    private static final int MIN_PRECISION = 4;
+    // dense 형식(1 + 2^precision byte)이 MySQL BLOB(최대 65535 byte)에 들어가도록 15로 제한한다. (ArticleVisitorSketch.registers)
+    public static final int MAX_PRECISION = 15;
+    // 직렬화 형식. 첫 byte의 상위 bit가 형식, 하위 bit가 precision
+    private static final int DENSE = 0x00;
+    private static final int SPARSE = 0x80;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if(precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("invalid hyperloglog precision : " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public void add(long value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - precision));
+        // index로 사용한 bit를 제외한 나머지에서 처음 1이 나오는 위치. 끝에 1을 두어 최댓값을 64 - precision + 1로 제한한다.
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if(rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * 추가된 서로 다른 값의 수를 추정한다. 값이 적을 때는 비어 있는 register 수로 보정(linear counting)한다.
+     * @author Jun Lee
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if(register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if(estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * other의 값을 이 sketch에 합친다(합집합). precision이 같아야 한다.
+     * @author Jun Lee
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if(other.precision != precision) {
+            throw new IllegalArgumentException("hyperloglog precision mismatch : " + precision + ", " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if(other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    /**
+     * 비어 있지 않은 register가 적으면 sparse 형식((index 2byte, register 1byte) 목록), 아니면 dense 형식(register 배열)으로 직렬화한다.
+     * @author Jun Lee
+     */
+    public byte[] toBytes() {
+        int nonZero = 0;
+        for (byte register : registers) {
+            if(register != 0) {
+                nonZero++;
+            }
+        }
+        if(nonZero * 3 < registers.length) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 + nonZero * 3);
+            buffer.put((byte) (SPARSE | precision));
+            for (int i = 0; i < registers.length; i++) {
+                if(registers[i] != 0) {
+                    buffer.putShort((short) i);
+                    buffer.put(registers[i]);
+                }
+            }
+            return buffer.array();
+        }
+        byte[] bytes = new byte[1 + registers.length];
+        bytes[0] = (byte) (DENSE | precision);
+        System.arraycopy(registers, 0, bytes, 1, registers.length);
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if(bytes == null || bytes.length == 0) {
+            throw new IllegalArgumentException("empty hyperloglog bytes");
+        }
+        int header = bytes[0] & 0xFF;
+        HyperLogLog sketch = new HyperLogLog(header & ~SPARSE);
+        if((header & SPARSE) != 0) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+            while (buffer.remaining() >= 3) {
+                int index = buffer.getShort() & 0xFFFF;
+                sketch.registers[index] = buffer.get();
+            }
+        }
+        else {
+            if(bytes.length != 1 + sketch.registers.length) {
+                throw new IllegalArgumentException("invalid hyperloglog bytes length : " + bytes.length);
+            }
+            System.arraycopy(bytes, 1, sketch.registers, 0, sketch.registers.length);
+        }
+        return sketch;
+    }
+
+    public HyperLogLog copy() {
+        HyperLogLog copy = new HyperLogLog(precision);
+        System.arraycopy(registers, 0, copy.registers, 0, registers.length);
+        return copy;
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+
+    // 상수를 더한 뒤 murmur3 finalizer로 섞는다. (finalizer만 사용하면 0이 0으로 hash된다.)
+    private static long hash(long value) {
+        long h = value + 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
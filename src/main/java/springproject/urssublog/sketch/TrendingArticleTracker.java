@@ -0,0 +1,117 @@
+package springproject.urssublog.sketch;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import springproject.urssublog.dto.comment.CommentActivityDto;
+import springproject.urssublog.event.ArticleChangedEvent;
+import springproject.urssublog.repository.JpaCommentRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 인기 게시글 집계. 게시글 조회와 댓글 작성을 DecayingTopK에 기록하고, 최근 점수가 높은 게시글 id를 DB 조회 없이 반환한다.
+ * 점수는 조회 1번에 1, 댓글 1개에 commentWeight이며, window(기본 5분)가 지날 때마다 decay를 곱해 줄어든다.
+ *
+ * 시작 시(ApplicationReadyEvent) 유지 기간(window x windowCount) 안에 작성된 댓글로 다시 채운다.
+ * 조회수는 시각별로 저장되어 있지 않으므로 시작 이후의 조회만 반영된다.
+ * @author Jun Lee
+ */
+@Slf4j
+@Component
+public class TrendingArticleTracker {
+    private static final int SCAN_CHUNK_SIZE = 1000;
+
+    private final JpaCommentRepository commentRepository;
+    private final DecayingTopK topK;
+    private final long commentWeight;
+    private final Duration retention;
+    private final Clock clock;
+
+    public TrendingArticleTracker(
+            JpaCommentRepository commentRepository,
+            @Value("${blog.trending.capacity:100}") int capacity,
+            @Value("${blog.trending.window:5m}") Duration window,
+            @Value("${blog.trending.window-count:12}") int windowCount,
+            @Value("${blog.trending.decay:0.8}") double decay,
+            @Value("${blog.trending.sketch.width:2048}") int sketchWidth,
+            @Value("${blog.trending.sketch.depth:4}") int sketchDepth,
+            @Value("${blog.trending.comment-weight:5}") long commentWeight,
+            MeterRegistry meterRegistry
+    ) {
+        this.commentRepository = commentRepository;
+        this.clock = Clock.systemUTC();
+        this.topK = new DecayingTopK(capacity, window, windowCount, decay, sketchWidth, sketchDepth, clock);
+        this.commentWeight = commentWeight;
+        this.retention = window.multipliedBy(windowCount);
+        Gauge.builder("blog.trending.candidates", topK, DecayingTopK::size)
+                .description("Articles currently held as trending top-k candidates")
+                .register(meterRegistry);
+    }
+
+    public void recordView(Long articleId) {
+        topK.add(articleId, 1);
+    }
+
+    public void recordComments(Long articleId, int count) {
+        topK.add(articleId, count * commentWeight);
+    }
+
+    /**
+     * 점수가 높은 순으로 최대 size개의 게시글 id와 점수를 반환한다.
+     * @author Jun Lee
+     */
+    public List<DecayingTopK.Entry> top(int size) {
+        return topK.top(size);
+    }
+
+    public void remove(List<Long> articleIds) {
+        topK.remove(articleIds);
+    }
+
+    // 삭제가 commit된 경우에만 제거한다. (rollback되면 점수를 유지한다.)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void removeOnDelete(ArticleChangedEvent event) {
+        if(event.getChangeType() == ArticleChangedEvent.ChangeType.DELETED) {
+            remove(event.getArticleIds());
+        }
+    }
+
+    /**
+     * 유지 기간 안에 작성된 댓글을 작성 시간 순으로 (created_at, comment_id) 커서를 따라 읽어 기록한다.
+     * 댓글 id 순서에 의존하지 않으므로, 노드마다 id 블록을 따로 할당하는 경우(pooled-id 프로필)에도 최근 댓글을 빠뜨리지 않는다.
+     * @author Jun Lee
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDateTime cursorTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(clock.millis() - retention.toMillis()), zone);
+        long cursorId = 0;
+        long scanned = 0;
+        List<CommentActivityDto> chunk;
+        do {
+            chunk = commentRepository.findActivitiesAfter(cursorTime, cursorId, PageRequest.of(0, SCAN_CHUNK_SIZE));
+            for (CommentActivityDto activity : chunk) {
+                if(activity.articleId() != null) {
+                    topK.add(activity.articleId(), commentWeight, activity.createdTime().atZone(zone).toInstant().toEpochMilli());
+                }
+                cursorTime = activity.createdTime();
+                cursorId = activity.id();
+                scanned++;
+            }
+        } while (chunk.size() == SCAN_CHUNK_SIZE);
+        log.info("TrendingArticleTracker, rebuilt from {} recent comments. candidates={}", scanned, topK.size());
+    }
+}
@@ -0,0 +1,157 @@
+package springproject.urssublog.sketch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import springproject.urssublog.dto.user.UserIdentityDto;
+import springproject.urssublog.repository.JpaUserRepository;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 가입된 회원의 email, username Bloom filter. 회원가입 시 중복 여부를 DB 조회 없이 먼저 확인하는 데 사용한다.
+ * false(확실히 없음)인 경우 중복 확인 조회를 생략하고, true(있을 수 있음)인 경우에만 index 조회로 확인한다.
+ *
+ * 시작 시(ApplicationReadyEvent) DB의 모든 회원으로 생성하고, 회원가입 시 추가한다.
+ * Bloom filter는 삭제를 지원하지 않으므로 탈퇴한 회원의 값은 오탐으로 남고, 탈퇴가 rebuildAfterDeletions번 쌓이면 다시 생성한다.
+ * 생성이 끝나기 전에는 항상 "있을 수 있음"으로 판단한다. 최종적인 중복 확인은 DB의 unique 제약이 담당한다.
+ * @author Jun Lee
+ */
+@Slf4j
+@Component
+public class UserIdentityBloomFilter {
+    private static final int SCAN_CHUNK_SIZE = 1000;
+
+    private record Filters(BloomFilter emails, BloomFilter usernames) {
+        private void put(String email, String username) {
+            emails.put(normalize(email));
+            usernames.put(normalize(username));
+        }
+    }
+
+    private final JpaUserRepository userRepository;
+    private final long minimumExpectedInsertions;
+    private final double fpp;
+    private final long rebuildAfterDeletions;
+
+    private volatile Filters filters;
+    // 다시 생성하는 동안 추가된 값이 새 filter에서 빠지지 않도록 양쪽에 추가한다.
+    private volatile Filters rebuilding;
+    private final AtomicBoolean rebuildInProgress = new AtomicBoolean();
+    private final AtomicLong deletionsSinceBuild = new AtomicLong();
+
+    private final Counter skippedCounter;
+    private final Counter checkedCounter;
+
+    public UserIdentityBloomFilter(
+            JpaUserRepository userRepository,
+            @Value("${blog.signup.bloom-filter.expected-insertions:100000}") long minimumExpectedInsertions,
+            @Value("${blog.signup.bloom-filter.fpp:0.01}") double fpp,
+            @Value("${blog.signup.bloom-filter.rebuild-after-deletions:10000}") long rebuildAfterDeletions,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.minimumExpectedInsertions = minimumExpectedInsertions;
+        this.fpp = fpp;
+        this.rebuildAfterDeletions = rebuildAfterDeletions;
+        this.skippedCounter = lookupCounter(meterRegistry, "skipped");
+        this.checkedCounter = lookupCounter(meterRegistry, "checked");
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("blog.signup.duplicate-check")
+                .description("Signup duplicate checks skipped by the bloom filter or sent to the database")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // email은 DB collation에 맞춰 대소문자를 구분하지 않는다. 구분하지 않으면 오탐이 늘 뿐 결과는 틀리지 않는다.
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if(!rebuildInProgress.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long userCount = userRepository.count();
+            long expectedInsertions = Math.max(minimumExpectedInsertions, userCount * 2);
+            Filters next = new Filters(BloomFilter.create(expectedInsertions, fpp), BloomFilter.create(expectedInsertions, fpp));
+            rebuilding = next;
+            deletionsSinceBuild.set(0);
+
+            long lastId = 0;
+            long scanned = 0;
+            List<UserIdentityDto> chunk;
+            do {
+                chunk = userRepository.findIdentitiesAfter(lastId, PageRequest.of(0, SCAN_CHUNK_SIZE));
+                for (UserIdentityDto identity : chunk) {
+                    next.put(identity.email(), identity.username());
+                    lastId = identity.id();
+                }
+                scanned += chunk.size();
+            } while (chunk.size() == SCAN_CHUNK_SIZE);
+
+            filters = next;
+            rebuilding = null;
+            log.info("UserIdentityBloomFilter, built from {} users. bits={}, hashes={}",
+                    scanned, next.emails().bitSize(), next.emails().hashCount());
+        }
+        finally {
+            rebuilding = null;
+            rebuildInProgress.set(false);
+        }
+    }
+
+    /**
+     * 해당 email을 가진 회원이 있을 수 있으면 true, 확실히 없으면 false.
+     * @author Jun Lee
+     */
+    public boolean mightContainEmail(String email) {
+        Filters current = filters;
+        return record(current == null || current.emails().mightContain(normalize(email)));
+    }
+
+    /**
+     * 해당 username을 가진 회원이 있을 수 있으면 true, 확실히 없으면 false.
+     * @author Jun Lee
+     */
+    public boolean mightContainUsername(String username) {
+        Filters current = filters;
+        return record(current == null || current.usernames().mightContain(normalize(username)));
+    }
+
+    private boolean record(boolean mightContain) {
+        (mightContain ? checkedCounter : skippedCounter).increment();
+        return mightContain;
+    }
+
+    // 회원가입된 값을 추가한다.
+    public void put(String email, String username) {
+        Filters current = filters;
+        if(current != null) {
+            current.put(email, username);
+        }
+        Filters next = rebuilding;
+        if(next != null) {
+            next.put(email, username);
+        }
+    }
+
+    // 회원 탈퇴를 기록한다. 오탐으로 남은 값이 많아지면 다른 스레드에서 다시 생성한다.
+    public void recordDeletion() {
+        if(deletionsSinceBuild.incrementAndGet() >= rebuildAfterDeletions && !rebuildInProgress.get()) {
+            Thread.ofVirtual().name("user-bloom-filter-rebuild").start(this::build);
+        }
+    }
+}
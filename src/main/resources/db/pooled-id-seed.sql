@@ -0,0 +1,13 @@
+-- pooled-id 프로필 시작 시 실행. id_generator의 다음 블록 시작 값을 각 테이블의 max(id) + 1 이상으로 맞춘다.
+-- 이미 더 큰 값이 있으면(다른 노드가 블록을 할당한 경우) 그대로 둔다.
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'user', COALESCE(MAX(user_id), 0) + 1 FROM `user`
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'article', COALESCE(MAX(article_id), 0) + 1 FROM article
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'comment', COALESCE(MAX(comment_id), 0) + 1 FROM comment
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
@@ -0,0 +1,11 @@
+-- 공유 session 저장소 (NearCachedJdbcSessionRepository). jdbc-session 프로필에서 시작 시 실행된다.
+CREATE TABLE IF NOT EXISTS blog_session (
+    session_id            VARCHAR(36) NOT NULL,
+    creation_time         BIGINT      NOT NULL,
+    last_access_time      BIGINT      NOT NULL,
+    max_inactive_interval INT         NOT NULL,
+    expiry_time           BIGINT      NOT NULL,
+    attributes            BLOB        NOT NULL,
+    PRIMARY KEY (session_id),
+    INDEX idx_blog_session_expiry_time (expiry_time)
+);
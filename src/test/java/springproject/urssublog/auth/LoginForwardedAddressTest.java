@@ -0,0 +1,58 @@
+package springproject.urssublog.auth;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import springproject.urssublog.dto.user.UserLoginRequestDto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * load balancer 뒤에서의 로그인 시도 수 제한 테스트. 실제 Tomcat(RemoteIpValve)을 띄워, 신뢰하는 proxy(127.0.0.1)가 보낸
+ * X-Forwarded-For의 client 주소별로 제한하는지 확인한다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "blog.login.rate-limit.per-ip=2",
+        "blog.login.rate-limit.per-email=10000"
+})
+@ActiveProfiles("test")
+public class LoginForwardedAddressTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private HttpStatusCode login(String forwardedFor, String email) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", forwardedFor);
+        return restTemplate.postForEntity("/users/login",
+                new HttpEntity<>(new UserLoginRequestDto(email, "password~~"), headers), String.class).getStatusCode();
+    }
+
+    /**
+     * client 주소별 제한 테스트 : 같은 proxy를 거쳐도 client 주소가 다르면 따로 세는 경우.
+     */
+    @Test
+    public void limitPerForwardedAddressTest() {
+        //given
+        login("203.0.113.1", "forwarded1@email.com");
+        login("203.0.113.1", "forwarded2@email.com");
+
+        //when
+        HttpStatusCode throttled = login("203.0.113.1", "forwarded3@email.com");
+        HttpStatusCode otherClient = login("203.0.113.2", "forwarded4@email.com");
+        HttpStatusCode spoofed = login("203.0.113.1, 203.0.113.3", "forwarded5@email.com");
+
+        //then
+        assertThat(throttled).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(otherClient).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        // client가 보낸 값(203.0.113.1)이 아니라 proxy가 마지막에 추가한 주소(203.0.113.3)로 제한한다.
+        assertThat(spoofed).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+}
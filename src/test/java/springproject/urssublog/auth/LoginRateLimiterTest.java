@@ -0,0 +1,207 @@
+package springproject.urssublog.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import springproject.urssublog.exception.classes.BlogTooManyRequestsException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * SlidingWindowRateLimiter, LoginRateLimiter 테스트. 시간은 테스트에서 직접 진행시킨다.
+ */
+@Slf4j
+public class LoginRateLimiterTest {
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    private final TestClock clock = new TestClock(Instant.parse("2024-01-01T00:00:00Z"));
+
+    private static final class TestClock extends Clock {
+        private volatile Instant now;
+
+        private TestClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    /**
+     * window 안에서 limit까지만 허용되고, key별로 따로 세는지 테스트.
+     */
+    @Test
+    public void limitPerKeyTest() {
+        //given
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(3, WINDOW, 100, clock);
+
+        //when, then
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("a")).isTrue();
+        }
+        assertThat(limiter.tryAcquire("a")).isFalse();
+        assertThat(limiter.tryAcquire("b")).isTrue();
+        assertThat(limiter.retryAfterSeconds()).isEqualTo(60);
+    }
+
+    /**
+     * 이전 window의 요청 수가 지난 시간 비율만큼 줄어들며 반영되는지 테스트.
+     */
+    @Test
+    public void slidingWindowTest() {
+        //given
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(10, WINDOW, 100, clock);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("a");
+        }
+
+        //when, then
+        //다음 window 시작 직후 : 이전 window 10회가 거의 그대로 반영된다.
+        clock.advance(WINDOW.plusSeconds(1));
+        assertThat(limiter.tryAcquire("a")).isFalse();
+        //다음 window의 절반이 지난 경우 : 이전 window 10회 중 5회만 반영된다.
+        clock.advance(Duration.ofSeconds(29));
+        int allowed = 0;
+        while (limiter.tryAcquire("a")) {
+            allowed++;
+        }
+        assertThat(allowed).isEqualTo(5);
+        //2개 window가 지난 경우 : 이전 기록이 모두 사라진다.
+        clock.advance(WINDOW.multipliedBy(2));
+        allowed = 0;
+        while (limiter.tryAcquire("a")) {
+            allowed++;
+        }
+        assertThat(allowed).isEqualTo(10);
+    }
+
+    /**
+     * release로 되돌린 요청은 제한에 세지 않는지 테스트.
+     */
+    @Test
+    public void releaseTest() {
+        //given
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(2, WINDOW, 100, clock);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("a");
+
+        //when
+        limiter.release("a");
+        limiter.release("unknown");
+
+        //then
+        assertThat(limiter.tryAcquire("a")).isTrue();
+        assertThat(limiter.tryAcquire("a")).isFalse();
+    }
+
+    /**
+     * 로그인 시도 수 제한 테스트 : email 제한에 걸려 거부된 시도는 IP의 시도 수에 세지 않는 경우.
+     */
+    @Test
+    public void emailThrottledNotCountedForIpTest() {
+        //given
+        LoginRateLimiter loginRateLimiter = new LoginRateLimiter(
+                new SlidingWindowRateLimiter(3, WINDOW, 100, clock),
+                new SlidingWindowRateLimiter(1, WINDOW, 100, clock),
+                new SimpleMeterRegistry());
+        loginRateLimiter.checkLoginAttempt("10.0.0.1", "email@email.com");
+
+        //when
+        for (int i = 0; i < 5; i++) {
+            assertThrows(BlogTooManyRequestsException.class, () -> {
+                loginRateLimiter.checkLoginAttempt("10.0.0.1", "email@email.com");
+            });
+        }
+
+        //then
+        loginRateLimiter.checkLoginAttempt("10.0.0.1", "other1@email.com");
+        loginRateLimiter.checkLoginAttempt("10.0.0.1", "other2@email.com");
+        assertThrows(BlogTooManyRequestsException.class, () -> {
+            loginRateLimiter.checkLoginAttempt("10.0.0.1", "other3@email.com");
+        });
+    }
+
+    /**
+     * 여러 스레드에서 동시에 요청해도 limit을 넘겨 허용하지 않는지 테스트.
+     */
+    @Test
+    public void concurrentAcquireTest() throws Exception {
+        //given
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(100, WINDOW, 100, clock);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger allowed = new AtomicInteger();
+
+        //when
+        for (int i = 0; i < 1000; i++) {
+            executor.submit(() -> {
+                if(limiter.tryAcquire("a")) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        //then
+        assertThat(allowed.get()).isEqualTo(100);
+    }
+
+    /**
+     * 로그인 시도 수 제한 테스트 : IP별, email별 제한. email은 대소문자, 앞뒤 공백을 구분하지 않는다.
+     */
+    @Test
+    public void loginRateLimiterTest() {
+        //given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LoginRateLimiter loginRateLimiter = new LoginRateLimiter(
+                new SlidingWindowRateLimiter(5, WINDOW, 100, clock),
+                new SlidingWindowRateLimiter(2, WINDOW, 100, clock),
+                meterRegistry);
+
+        //when, then
+        loginRateLimiter.checkLoginAttempt("10.0.0.1", "email@email.com");
+        loginRateLimiter.checkLoginAttempt("10.0.0.2", " EMAIL@email.com");
+        BlogTooManyRequestsException thrown1 = assertThrows(BlogTooManyRequestsException.class, () -> {
+            loginRateLimiter.checkLoginAttempt("10.0.0.3", "email@email.com");
+        });
+        log.debug("loginRateLimiterTest(), email throttled message={}, retry after={}s", thrown1.getMessage(), thrown1.getRetryAfterSeconds());
+
+        //10.0.0.1의 5번째 시도까지 허용
+        for (int i = 0; i < 4; i++) {
+            loginRateLimiter.checkLoginAttempt("10.0.0.1", "other" + i + "@email.com");
+        }
+        BlogTooManyRequestsException thrown2 = assertThrows(BlogTooManyRequestsException.class, () -> {
+            loginRateLimiter.checkLoginAttempt("10.0.0.1", "another@email.com");
+        });
+        log.debug("loginRateLimiterTest(), ip throttled message={}", thrown2.getMessage());
+
+        assertThat(meterRegistry.get("blog.login.throttled").tag("key", "email").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("blog.login.throttled").tag("key", "ip").counter().count()).isEqualTo(1);
+    }
+}
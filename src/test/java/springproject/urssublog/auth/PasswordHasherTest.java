@@ -0,0 +1,125 @@
+package springproject.urssublog.auth;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import springproject.urssublog.exception.classes.BlogServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * PasswordHasher 테스트. 이전 형식(SHA-256) 호환과, 해시 스레드 / 대기열이 가득 찬 경우의 거부를 확인한다.
+ */
+@Slf4j
+public class PasswordHasherTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static PasswordEncoder argon2Encoder() {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("argon2",
+                Map.of("argon2", new Argon2PasswordEncoder(16, 32, 1, 1024, 1)));
+        encoder.setDefaultPasswordEncoderForMatches(new Sha256PasswordEncoder());
+        return encoder;
+    }
+
+    /**
+     * 새 형식으로 해시, 확인 테스트와 이전 형식 비밀번호 확인 테스트.
+     */
+    @Test
+    public void encodeAndMatchesTest() {
+        //given
+        PasswordHasher hasher = new PasswordHasher(argon2Encoder(), 2, 10, Duration.ofSeconds(5), meterRegistry);
+        String legacy = Sha256PasswordEncoder.sha256("password~");
+
+        //when
+        String encoded = hasher.encode("password~");
+
+        //then
+        assertThat(encoded).startsWith("{argon2}");
+        assertThat(hasher.matches("password~", encoded)).isTrue();
+        assertThat(hasher.matches("wrong~", encoded)).isFalse();
+        assertThat(hasher.needsUpgrade(encoded)).isFalse();
+
+        assertThat(hasher.matches("password~", legacy)).isTrue();
+        assertThat(hasher.matches("wrong~", legacy)).isFalse();
+        assertThat(hasher.needsUpgrade(legacy)).isTrue();
+
+        assertThat(meterRegistry.get("blog.password.hash").tag("operation", "matches").timer().count()).isEqualTo(4);
+        hasher.shutdown();
+    }
+
+    /**
+     * 없는 회원의 로그인 테스트 : 저장된 해시가 없어도 같은 형식의 해시와 비교하는지 테스트.
+     */
+    @Test
+    public void matchesNoneTest() {
+        //given
+        PasswordHasher hasher = new PasswordHasher(argon2Encoder(), 2, 10, Duration.ofSeconds(5), meterRegistry);
+        Timer matchesTimer = meterRegistry.get("blog.password.hash").tag("operation", "matches").timer();
+
+        //when
+        hasher.matchesNone("password~");
+        hasher.matchesNone("password~");
+
+        //then
+        assertThat(matchesTimer.count()).isEqualTo(2);
+        assertThat(matchesTimer.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+        hasher.shutdown();
+    }
+
+    /**
+     * 해시 스레드와 대기열이 모두 사용 중이면 기다리지 않고 BlogServiceUnavailableException을 던지는지 테스트.
+     */
+    @Test
+    public void rejectWhenQueueIsFullTest() throws Exception {
+        //given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = new Sha256PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        PasswordHasher hasher = new PasswordHasher(blockingEncoder, 1, 1, Duration.ofSeconds(5), meterRegistry);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        //when
+        Future<String> running = callers.submit(() -> hasher.encode("first"));
+        started.await();
+        Future<String> queued = callers.submit(() -> hasher.encode("second"));
+        while (meterRegistry.get("blog.password.hash.queue.size").gauge().value() < 1) {
+            Thread.sleep(10);
+        }
+        long start = System.nanoTime();
+        BlogServiceUnavailableException thrown = assertThrows(BlogServiceUnavailableException.class, () -> {
+            hasher.encode("third");
+        });
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        release.countDown();
+
+        //then
+        log.debug("rejectWhenQueueIsFullTest(), rejected in {}ms, message={}", elapsedMillis, thrown.getMessage());
+        assertThat(elapsedMillis).isLessThan(1000);
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo(Sha256PasswordEncoder.sha256("first"));
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo(Sha256PasswordEncoder.sha256("second"));
+        assertThat(meterRegistry.get("blog.password.hash.rejected").counter().count()).isEqualTo(1);
+        callers.shutdown();
+        hasher.shutdown();
+    }
+}
@@ -0,0 +1,96 @@
+package springproject.urssublog.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import springproject.urssublog.domain.User;
+import springproject.urssublog.dto.article.ArticleRequestDto;
+import springproject.urssublog.dto.user.UserLoginRequestDto;
+import springproject.urssublog.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * blog.auth.mode=token 테스트. 로그인 시 발급된 token으로 인증하며 session을 만들지 않는다.
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "blog.auth.mode=token",
+        "blog.auth.token.secret=MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY="
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class TokenAuthModeTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService; // 테스트 데이터 설정용
+
+    private String login() throws Exception {
+        User user = new User("wnsx0000@gmail.com", "pasword~~", "username~~");
+        userService.saveUser(user);
+
+        MvcResult result = mockMvc.perform(post("/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserLoginRequestDto("wnsx0000@gmail.com", "pasword~~"))))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(TokenLoginManager.HEADER))
+                .andReturn();
+        assertThat(result.getRequest().getSession(false)).isNull();
+        return result.getResponse().getHeader(TokenLoginManager.HEADER);
+    }
+
+    /**
+     * token 인증 테스트 : 발급받은 token으로 게시글을 등록하는 경우. (201 Created)
+     */
+    @Test
+    public void tokenAuthSuccess() throws Exception {
+        //given
+        String authorization = login();
+
+        //when, then
+        MvcResult result = mockMvc.perform(post("/posts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ArticleRequestDto("content~~", "title~~")))
+                        .header(TokenLoginManager.HEADER, authorization))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email").value("wnsx0000@gmail.com"))
+                .andReturn();
+        assertThat(result.getRequest().getSession(false)).isNull();
+    }
+
+    /**
+     * token 인증 테스트 : token이 없거나 변조된 경우. (400)
+     */
+    @Test
+    public void tokenAuthFailure() throws Exception {
+        //given
+        String authorization = login();
+        //payload 첫 문자 변경
+        int index = "Bearer ".length();
+        String tampered = authorization.substring(0, index)
+                + (authorization.charAt(index) == 'A' ? 'B' : 'A') + authorization.substring(index + 1);
+
+        //when, then
+        mockMvc.perform(get("/posts"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("로그인 중이 아닙니다."));
+        mockMvc.perform(get("/posts")
+                        .header(TokenLoginManager.HEADER, tampered))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,107 @@
+package springproject.urssublog.auth;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * TokenLoginManager token 발급, 검증 테스트.
+ */
+@Slf4j
+public class TokenLoginManagerTest {
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+    private static final Instant NOW = Instant.parse("2024-09-01T00:00:00Z");
+
+    private TokenLoginManager managerAt(Instant instant) {
+        return new TokenLoginManager(SECRET, Duration.ofHours(1), Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    /**
+     * token 검증 테스트 : 성공한 경우.
+     */
+    @Test
+    public void verifySuccess() {
+        //given
+        TokenLoginManager manager = managerAt(NOW);
+        String token = manager.issue(new LoginUser(7L, "wnsx0000@gmail.com", "사용자~~"));
+
+        //when
+        LoginUser loginUser = manager.verify(token);
+
+        //then
+        assertThat(loginUser).isNotNull();
+        assertThat(loginUser.getId()).isEqualTo(7L);
+        assertThat(loginUser.getEmail()).isEqualTo("wnsx0000@gmail.com");
+        assertThat(loginUser.getUsername()).isEqualTo("사용자~~");
+    }
+
+    /**
+     * token 검증 테스트 : 서명 또는 내용이 변경된 경우.
+     */
+    @Test
+    public void verifyTamperedFailure() {
+        //given
+        TokenLoginManager manager = managerAt(NOW);
+        String token = manager.issue(new LoginUser(7L, "wnsx0000@gmail.com", "username~~"));
+        String otherToken = manager.issue(new LoginUser(8L, "other@gmail.com", "other~~"));
+        int dot = token.indexOf('.');
+
+        //when, then
+        //다른 token의 서명
+        assertThat(manager.verify(token.substring(0, dot) + otherToken.substring(otherToken.indexOf('.')))).isNull();
+        //다른 token의 내용
+        assertThat(manager.verify(otherToken.substring(0, otherToken.indexOf('.')) + token.substring(dot))).isNull();
+        //다른 키로 서명된 token
+        TokenLoginManager otherKeyManager = new TokenLoginManager(
+                "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8), Duration.ofHours(1), Clock.systemUTC());
+        assertThat(otherKeyManager.verify(token)).isNull();
+    }
+
+    /**
+     * token 검증 테스트 : 유효 기간이 지난 경우.
+     */
+    @Test
+    public void verifyExpiredFailure() {
+        //given
+        String token = managerAt(NOW).issue(new LoginUser(7L, "wnsx0000@gmail.com", "username~~"));
+
+        //when, then
+        assertThat(managerAt(NOW.plus(Duration.ofMinutes(59))).verify(token)).isNotNull();
+        assertThat(managerAt(NOW.plus(Duration.ofHours(1))).verify(token)).isNull();
+    }
+
+    /**
+     * token 검증 테스트 : 형식이 잘못된 경우.
+     */
+    @Test
+    public void verifyMalformedFailure() {
+        //given
+        TokenLoginManager manager = managerAt(NOW);
+
+        //when, then
+        assertThat(manager.verify("")).isNull();
+        assertThat(manager.verify("abc")).isNull();
+        assertThat(manager.verify(".abc")).isNull();
+        assertThat(manager.verify("abc.")).isNull();
+        assertThat(manager.verify("!!!.???")).isNull();
+        assertThat(manager.verify("AAAA.AAAA")).isNull();
+    }
+
+    /**
+     * TokenLoginManager 생성 테스트 : 서명 키가 32바이트보다 짧은 경우.
+     */
+    @Test
+    public void shortSecretFailure() {
+        //given, when, then
+        assertThrows(IllegalArgumentException.class,
+                () -> new TokenLoginManager(new byte[16], Duration.ofHours(1), Clock.systemUTC()));
+    }
+}
@@ -0,0 +1,94 @@
+package springproject.urssublog.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import springproject.urssublog.UrssublogApplication;
+import springproject.urssublog.cache.ArticleCache;
+import springproject.urssublog.domain.Article;
+import springproject.urssublog.domain.User;
+import springproject.urssublog.service.ArticleService;
+import springproject.urssublog.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 인기 게시글의 캐시 항목이 만료된 순간 동시에 조회가 몰리는 상황(cache stampede) 부하 테스트.
+ * 매 라운드마다 항목을 제거(만료)한 뒤 CONCURRENCY개의 요청이 동시에 같은 게시글을 조회하고, 실행된 SQL statement 수를 확인한다.
+ * 테스트용 회원, 게시글은 측정 후 삭제된다. 실행 : ./gradlew benchmarkTest --tests '*ArticleCacheStampedeBenchmarkTest'
+ */
+@Slf4j
+@Tag("benchmark")
+public class ArticleCacheStampedeBenchmarkTest {
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.stampede.concurrency", 500);
+    private static final int ROUNDS = 20;
+
+    @Test
+    public void oneQueryPerKeyPerExpiry() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UrssublogApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.jpa.show-sql=false", "logging.level.springproject=info")
+                .run()) {
+            UserService userService = context.getBean(UserService.class);
+            ArticleService articleService = context.getBean(ArticleService.class);
+            ArticleCache articleCache = context.getBean(ArticleCache.class);
+            Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            statistics.setStatisticsEnabled(true);
+
+            User user = new User("stampede@bench.mark", "password~", "stampede");
+            userService.saveUser(user);
+            try {
+                Article article = new Article("content~~", "title~~");
+                articleService.saveArticle(article, user.getId());
+
+                long totalStatements = 0;
+                long totalNanos = 0;
+                try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                    for (int round = 0; round < ROUNDS; round++) {
+                        articleCache.invalidate(List.of(article.getId())); // 만료
+                        statistics.clear();
+
+                        CountDownLatch start = new CountDownLatch(1);
+                        List<Future<String>> results = new ArrayList<>(CONCURRENCY);
+                        for (int i = 0; i < CONCURRENCY; i++) {
+                            results.add(executor.submit(() -> {
+                                start.await();
+                                return articleService.findArticle(article.getId()).getTitle();
+                            }));
+                        }
+                        long begin = System.nanoTime();
+                        start.countDown();
+                        for (Future<String> result : results) {
+                            assertThat(result.get()).isEqualTo("title~~");
+                        }
+                        totalNanos += System.nanoTime() - begin;
+
+                        long statements = statistics.getPrepareStatementCount();
+                        totalStatements += statements;
+                        assertThat(statements).isEqualTo(1);
+                    }
+                }
+                log.info("ArticleCacheStampedeBenchmark, rounds={} concurrency={} statements={} ({} per expiry), avg round={} ms",
+                        ROUNDS, CONCURRENCY, totalStatements, (double) totalStatements / ROUNDS,
+                        String.format("%.2f", totalNanos / 1_000_000.0 / ROUNDS));
+            }
+            finally {
+                userService.deleteUser(user.getId());
+            }
+        }
+    }
+}
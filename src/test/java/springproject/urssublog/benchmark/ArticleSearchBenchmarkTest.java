@@ -0,0 +1,183 @@
+package springproject.urssublog.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.ko.KoreanAnalyzer;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springproject.urssublog.UrssublogApplication;
+import springproject.urssublog.dto.article.ArticleSearchDocumentDto;
+import springproject.urssublog.search.LuceneArticleIndex;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 게시글 검색 지연 시간 벤치마크. 게시글 ARTICLES개를 넣고, 같은 단어를 LIKE '%q%'(title or content)와 Lucene 색인으로 찾아 p50/p99를 비교한다.
+ * 게시글은 VOCABULARY개의 임의 단어로 만들어, 단어 하나가 약 ARTICLES * 15 / VOCABULARY개의 게시글에 나오도록 한다.
+ * 모든 데이터는 트랜잭션 롤백으로 정리되고, 색인은 임시 디렉터리에 만든다.
+ * 실행 : ./gradlew benchmarkTest --tests '*ArticleSearchBenchmarkTest' -Dbenchmark.search.articles=1000000
+ */
+@Slf4j
+@Tag("benchmark")
+public class ArticleSearchBenchmarkTest {
+    private static final int ARTICLES = Integer.getInteger("benchmark.search.articles", 1_000_000);
+    private static final int VOCABULARY = 10_000;
+    private static final int INSERT_CHUNK = 5_000;
+    private static final int QUERIES = 200;
+    private static final int RESULT_SIZE = 20;
+
+    @TempDir
+    Path indexDir;
+
+    @Test
+    public void compareLikeAndLuceneSearchLatency() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UrssublogApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.jpa.show-sql=false", "logging.level.springproject=info")
+                .run()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+            tx.executeWithoutResult(status -> {
+                try (LuceneArticleIndex index = new LuceneArticleIndex(FSDirectory.open(indexDir), new KoreanAnalyzer())) {
+                    long start = System.nanoTime();
+                    insertArticles(jdbcTemplate);
+                    long inserted = System.nanoTime();
+                    indexArticles(jdbcTemplate, index);
+                    log.info("ArticleSearchBenchmark, articles={} insert={} ms, index={} ms",
+                            ARTICLES, (inserted - start) / 1_000_000, (System.nanoTime() - inserted) / 1_000_000);
+
+                    Random random = new Random(7);
+                    String[] queries = new String[QUERIES];
+                    for (int i = 0; i < QUERIES; i++) {
+                        queries[i] = word(random.nextInt(VOCABULARY));
+                    }
+                    // 같은 검색어 목록을 한 번씩 실행해 워밍업한 뒤 측정한다.
+                    measure(queries, q -> like(jdbcTemplate, q));
+                    measure(queries, q -> lucene(index, q));
+                    long[] like = measure(queries, q -> like(jdbcTemplate, q));
+                    long[] lucene = measure(queries, q -> lucene(index, q));
+
+                    log.info("ArticleSearchBenchmark, queries={} LIKE p50={} us p99={} us, Lucene p50={} us p99={} us",
+                            QUERIES, percentile(like, 50), percentile(like, 99),
+                            percentile(lucene, 50), percentile(lucene, 99));
+                    assertThat(index.numDocs()).isEqualTo(ARTICLES);
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                finally {
+                    status.setRollbackOnly();
+                }
+            });
+        }
+    }
+
+    // 작성자 없는 게시글을 INSERT_CHUNK개씩 batch insert한다. 제목은 단어 3개, 본문은 단어 12개이다.
+    private void insertArticles(JdbcTemplate jdbcTemplate) {
+        Random random = new Random(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(INSERT_CHUNK);
+        for (int i = 0; i < ARTICLES; i++) {
+            rows.add(new Object[]{sentence(random, 3), sentence(random, 12), now});
+            if(rows.size() == INSERT_CHUNK || i == ARTICLES - 1) {
+                jdbcTemplate.batchUpdate("insert into article (title, content, created_at) values (?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    private void indexArticles(JdbcTemplate jdbcTemplate, LuceneArticleIndex index) throws IOException {
+        List<ArticleSearchDocumentDto> chunk = new ArrayList<>(INSERT_CHUNK);
+        jdbcTemplate.query("select article_id, title, content from article", rs -> {
+            chunk.add(new ArticleSearchDocumentDto(rs.getLong(1), rs.getString(2), rs.getString(3)));
+            if(chunk.size() == INSERT_CHUNK) {
+                upsert(index, chunk);
+            }
+        });
+        upsert(index, chunk);
+        index.commit();
+    }
+
+    private void upsert(LuceneArticleIndex index, List<ArticleSearchDocumentDto> chunk) {
+        try {
+            index.upsert(chunk);
+            chunk.clear();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int like(JdbcTemplate jdbcTemplate, String query) {
+        String pattern = "%" + query + "%";
+        return jdbcTemplate.queryForList("select article_id from article where title like ? or content like ? limit " + RESULT_SIZE,
+                Long.class, pattern, pattern).size();
+    }
+
+    private int lucene(LuceneArticleIndex index, String query) {
+        try {
+            return index.search(query, RESULT_SIZE).size();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 검색어마다 걸린 시간(us)을 정렬해 반환한다.
+    private long[] measure(String[] queries, ToIntFunction<String> search) {
+        long[] micros = new long[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            long start = System.nanoTime();
+            search.applyAsInt(queries[i]);
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(micros);
+        return micros;
+    }
+
+    private long percentile(long[] sorted, int percent) {
+        int index = (int) Math.ceil(sorted.length * percent / 100.0) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    private String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if(i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(word(random.nextInt(VOCABULARY)));
+        }
+        return sentence.toString();
+    }
+
+    // 영문자 3개로 된 단어(aaa ~ ). 길이가 같으므로 LIKE '%q%'도 해당 단어만 찾는다. (숫자가 섞이면 형태소 분석기가 나누어 색인한다.)
+    private String word(int index) {
+        char[] word = new char[3];
+        for (int i = word.length - 1; i >= 0; i--) {
+            word[i] = (char) ('a' + index % 26);
+            index /= 26;
+        }
+        return new String(word);
+    }
+}
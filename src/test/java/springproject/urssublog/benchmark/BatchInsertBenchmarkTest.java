@@ -0,0 +1,98 @@
+package springproject.urssublog.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springproject.urssublog.UrssublogApplication;
+import springproject.urssublog.domain.Article;
+import springproject.urssublog.domain.Comment;
+import springproject.urssublog.domain.User;
+import springproject.urssublog.service.ArticleService;
+import springproject.urssublog.service.CommentService;
+import springproject.urssublog.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 게시글/댓글 일괄 등록 처리량 벤치마크. IDENTITY(기본)와 pooled-id 프로필을 각각 별도의 컨텍스트로 띄워 rows/sec를 비교한다.
+ * 모든 데이터는 트랜잭션 롤백으로 정리된다. 실행 : ./gradlew benchmarkTest --tests '*BatchInsertBenchmarkTest'
+ */
+@Slf4j
+@Tag("benchmark")
+public class BatchInsertBenchmarkTest {
+    private static final int ROWS = Integer.getInteger("benchmark.batch-insert.rows", 5_000);
+    private static final int ROUNDS = 3;
+
+    @Test
+    public void compareIdentityAndPooledIdInsertThroughput() {
+        double identity = measureRowsPerSecond("test");
+        double pooled = measureRowsPerSecond("test", "pooled-id");
+
+        log.info("BatchInsertBenchmark, rows={} identity={} rows/sec, pooled-id={} rows/sec, gain=x{}",
+                ROWS * 2, String.format("%.0f", identity), String.format("%.0f", pooled),
+                String.format("%.2f", pooled / identity));
+        assertThat(identity).isPositive();
+        assertThat(pooled).isPositive();
+    }
+
+    // 지정한 프로필로 컨텍스트를 띄워 게시글 ROWS개 + 댓글 ROWS개 등록을 ROUNDS번 반복하고, 가장 좋은 rows/sec를 반환한다.
+    private double measureRowsPerSecond(String... profiles) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UrssublogApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profiles)
+                .properties("spring.jpa.show-sql=false", "logging.level.springproject=info")
+                .run()) {
+            UserService userService = context.getBean(UserService.class);
+            ArticleService articleService = context.getBean(ArticleService.class);
+            CommentService commentService = context.getBean(CommentService.class);
+            EntityManager em = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+            TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+            double best = 0;
+            for (int round = 0; round <= ROUNDS; round++) { // 0번째 라운드는 워밍업
+                int currentRound = round;
+                double rowsPerSecond = tx.execute(status -> {
+                    User user = new User("benchmark" + currentRound + "@bench.mark", "password~", "benchmark" + currentRound);
+                    userService.saveUser(user);
+                    Article parent = new Article("content~~", "title~~");
+                    articleService.saveArticle(parent, user.getId());
+                    em.flush();
+
+                    List<Article> articles = new ArrayList<>(ROWS);
+                    List<Comment> comments = new ArrayList<>(ROWS);
+                    for (int i = 0; i < ROWS; i++) {
+                        articles.add(new Article("content" + i, "title" + i));
+                        comments.add(new Comment("comment" + i));
+                    }
+
+                    long start = System.nanoTime();
+                    articleService.saveArticles(articles, user.getId());
+                    commentService.saveComments(comments, parent.getId(), user.getId());
+                    em.flush();
+                    long elapsed = System.nanoTime() - start;
+
+                    status.setRollbackOnly();
+                    em.clear();
+                    return ROWS * 2 / (elapsed / 1_000_000_000.0);
+                });
+                log.info("BatchInsertBenchmark, profiles={} round={} {} rows/sec",
+                        String.join(",", profiles), round, String.format("%.0f", rowsPerSecond));
+                if (round > 0) {
+                    best = Math.max(best, rowsPerSecond);
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package springproject.urssublog.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import springproject.urssublog.UrssublogApplication;
+import springproject.urssublog.domain.Article;
+import springproject.urssublog.domain.User;
+import springproject.urssublog.service.ArticleService;
+import springproject.urssublog.service.UserService;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 플랫폼 스레드(기본)와 virtual-threads 프로필의 부하 테스트 비교. 각 모드로 서버를 띄우고,
+ * CONCURRENCY개의 클라이언트가 동시에 로그인이 필요한 조회 요청(게시글의 댓글 목록)을 보내 처리량과 p99 응답 시간을 측정한다.
+ * 두 모드 모두 같은 connection pool 크기를 사용한다. 테스트용 회원, 게시글은 측정 후 삭제된다.
+ * 실행 : ./gradlew benchmarkTest --tests '*VirtualThreadLoadBenchmarkTest'
+ */
+@Slf4j
+@Tag("benchmark")
+public class VirtualThreadLoadBenchmarkTest {
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.load.concurrency", 1_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.load.requests", 50_000);
+    private static final int POOL_SIZE = 20;
+
+    @Test
+    public void comparePlatformAndVirtualThreadModes() throws Exception {
+        LoadResult platform = measure("test");
+        LoadResult virtual = measure("test", "virtual-threads");
+
+        log.info("VirtualThreadLoadBenchmark, concurrency={} requests={}\n platform : {}\n virtual  : {}",
+                CONCURRENCY, REQUESTS, platform, virtual);
+        assertThat(platform.throughput()).isPositive();
+        assertThat(virtual.throughput()).isPositive();
+    }
+
+    private LoadResult measure(String... profiles) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UrssublogApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles(profiles)
+                .properties("server.port=0",
+                        "server.tomcat.max-connections=" + (CONCURRENCY * 2),
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.springproject=info")
+                .run()) {
+            UserService userService = context.getBean(UserService.class);
+            ArticleService articleService = context.getBean(ArticleService.class);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            String profileName = String.join("-", profiles);
+            User user = new User("load-" + profileName + "@bench.mark", "password~", "load-" + profileName);
+            userService.saveUser(user);
+            try {
+                Article article = new Article("content~~", "title~~");
+                articleService.saveArticle(article, user.getId());
+
+                try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                    HttpClient client = HttpClient.newBuilder()
+                            .version(HttpClient.Version.HTTP_1_1)
+                            .cookieHandler(new CookieManager())
+                            .connectTimeout(Duration.ofSeconds(10))
+                            .executor(executor)
+                            .build();
+                    HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/users/login"))
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString(
+                                            "{\"email\":\"" + user.getEmail() + "\",\"password\":\"password~\"}"))
+                                    .build(),
+                            HttpResponse.BodyHandlers.ofString());
+                    assertThat(login.statusCode()).isEqualTo(200);
+
+                    URI target = URI.create(baseUrl + "/posts/" + article.getId() + "/comments?size=20");
+                    run(client, executor, target, REQUESTS / 10); // 워밍업
+                    LoadResult result = run(client, executor, target, REQUESTS);
+                    log.info("VirtualThreadLoadBenchmark, profiles={} {}", String.join(",", profiles), result);
+                    return result;
+                }
+            }
+            finally {
+                userService.deleteUser(user.getId());
+            }
+        }
+    }
+
+    // CONCURRENCY개의 가상 스레드 클라이언트가 requests개의 요청을 나누어 보내고, 요청별 응답 시간을 기록한다.
+    private LoadResult run(HttpClient client, ExecutorService executor, URI target, int requests) throws Exception {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        HttpRequest request = HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(30)).GET().build();
+
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            futures.add(executor.submit(() -> {
+                int index;
+                while ((index = next.getAndIncrement()) < requests) {
+                    long requestStart = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[index] = System.nanoTime() - requestStart;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new LoadResult(
+                requests / (elapsed / 1_000_000_000.0),
+                latencies[(int) (requests * 0.50)] / 1_000_000.0,
+                latencies[Math.min(requests - 1, (int) Math.ceil(requests * 0.99) - 1)] / 1_000_000.0,
+                failures.get());
+    }
+
+    private record LoadResult(double throughput, double p50Millis, double p99Millis, int failures) {
+        @Override
+        public String toString() {
+            return String.format("throughput=%.0f req/s, p50=%.1f ms, p99=%.1f ms, failures(non-200)=%d",
+                    throughput, p50Millis, p99Millis, failures);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package springproject.urssublog.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import springproject.urssublog.dto.article.ArticleResponseDto;
+import springproject.urssublog.exception.classes.BlogResourceNotFoundException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ArticleCache 테스트. DB를 사용하지 않고 loader 호출 횟수로 동시 조회의 공유(single flight)를 확인한다.
+ */
+@Slf4j
+public class ArticleCacheTest {
+    private static final int CONCURRENCY = 50;
+
+    private final ArticleCache articleCache = new ArticleCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    // CONCURRENCY개의 요청이 동시에 get을 호출한다. 모든 요청이 loader 안에서 대기 중인 조회를 만난 뒤에 loader가 끝난다.
+    private List<Future<Object>> getConcurrently(Long articleId, CountDownLatch release, AtomicInteger loads,
+                                                 RuntimeException failure) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        CountDownLatch started = new CountDownLatch(CONCURRENCY);
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            results.add(executor.submit(() -> {
+                started.countDown();
+                try {
+                    return articleCache.get(articleId, id -> {
+                        loads.incrementAndGet();
+                        await(release);
+                        if(failure != null) {
+                            throw failure;
+                        }
+                        return new ArticleResponseDto(id, "email~", "title~~", "content~~");
+                    });
+                }
+                catch (RuntimeException e) {
+                    return e;
+                }
+            }));
+        }
+        started.await();
+        Thread.sleep(100); // 모든 요청이 get에 진입할 시간
+        release.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 동시 조회 테스트 : loader는 한 번만 실행되고 모든 요청이 같은 결과를 받는다.
+     */
+    @Test
+    public void concurrentMissesShareOneLoad() throws Exception {
+        //given
+        AtomicInteger loads = new AtomicInteger();
+
+        //when
+        List<Future<Object>> results = getConcurrently(1L, new CountDownLatch(1), loads, null);
+
+        //then
+        assertThat(loads.get()).isEqualTo(1);
+        Object first = results.get(0).get();
+        assertThat(first).isInstanceOf(ArticleResponseDto.class);
+        for (Future<Object> result : results) {
+            assertThat(result.get()).isSameAs(first);
+        }
+    }
+
+    /**
+     * 동시 조회 테스트 : loader가 예외를 던지면 모든 요청이 같은 예외를 받고, 실패한 결과는 보관되지 않는다.
+     */
+    @Test
+    public void concurrentMissesShareOneFailure() throws Exception {
+        //given
+        AtomicInteger loads = new AtomicInteger();
+        BlogResourceNotFoundException failure = new BlogResourceNotFoundException("해당 id의 게시글이 존재하지 않습니다.");
+
+        //when
+        List<Future<Object>> results = getConcurrently(2L, new CountDownLatch(1), loads, failure);
+
+        //then
+        assertThat(loads.get()).isEqualTo(1);
+        for (Future<Object> result : results) {
+            assertThat(result.get()).isSameAs(failure);
+        }
+        assertThat(articleCache.estimatedSize()).isZero();
+    }
+
+    /**
+     * 무효화 테스트 : 조회 중에 무효화된 결과는 보관되지 않고, 다음 조회는 loader를 다시 실행한다.
+     */
+    @Test
+    public void invalidateDuringLoad() throws Exception {
+        //given
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<ArticleResponseDto> stale = executor.submit(() -> articleCache.get(3L, id -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return new ArticleResponseDto(id, "email~", "oldTitle", "content~~");
+        }));
+        loading.await();
+
+        //when
+        articleCache.invalidate(List.of(3L));
+        release.countDown();
+        stale.get();
+        ArticleResponseDto fresh = articleCache.get(3L, id -> {
+            loads.incrementAndGet();
+            return new ArticleResponseDto(id, "email~", "newTitle", "content~~");
+        });
+        executor.shutdown();
+
+        //then
+        assertThat(stale.get().getTitle()).isEqualTo("oldTitle");
+        assertThat(fresh.getTitle()).isEqualTo("newTitle");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+}
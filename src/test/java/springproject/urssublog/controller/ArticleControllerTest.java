@@ -1,5 +1,6 @@
 package springproject.urssublog.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,7 @@ import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import springproject.urssublog.domain.Article;
 import springproject.urssublog.domain.User;
@@ -316,4 +318,140 @@ public class ArticleControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.status").value("400 BAD_REQUEST"));
     }
+
+    /**
+     * /users/{userId}/posts GET 회원별 게시물 목록 조회 테스트 : 커서로 다음 페이지를 조회하는 경우.
+     */
+    @Test
+    public void findArticlesByUserCursorSuccess() throws Exception {
+        //given
+        //회원가입
+        User user = new User("wnsx0000@gmail.com", "pasword~~", "username~~");
+        userService.saveUser(user);
+
+        //세션 생성(로그인)
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("id", user.getId());
+        session.setAttribute("email", user.getEmail());
+        session.setAttribute("username", user.getUsername());
+
+        //게시물 3개 등록
+        for (int i = 0; i < 3; i++) {
+            articleService.saveArticle(new Article("content" + i, "title" + i), user.getId());
+        }
+
+        //when, then
+        //첫 페이지
+        MvcResult firstPage = mockMvc.perform(get("/users/" + user.getId() + "/posts")
+                        .param("size", "2")
+                        .session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.content[0].title").value("title2"))
+                .andReturn();
+        JsonNode body = objectMapper.readTree(firstPage.getResponse().getContentAsString());
+
+        //다음 페이지
+        mockMvc.perform(get("/users/" + user.getId() + "/posts")
+                        .param("size", "2")
+                        .param("cursorTime", body.get("nextCursorTime").asText())
+                        .param("cursorId", body.get("nextCursorId").asText())
+                        .session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.content[0].title").value("title0"))
+                .andExpect(jsonPath("$.content[0].email").value("wnsx0000@gmail.com"));
+    }
+
+    /**
+     * /users/{userId}/posts GET 회원별 게시물 목록 조회 테스트 : 해당 id의 회원이 존재하지 않는 경우. (404)
+     * → BlogUserNotFoundException
+     */
+    @Test
+    public void findArticlesByUserNotFoundFailure() throws Exception {
+        //given
+        //회원가입
+        User user = new User("wnsx0000@gmail.com", "pasword~~", "username~~");
+        userService.saveUser(user);
+
+        //세션 생성(로그인)
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("id", user.getId());
+        session.setAttribute("email", user.getEmail());
+        session.setAttribute("username", user.getUsername());
+
+        //when, then
+        mockMvc.perform(get("/users/" + (user.getId() + 100) + "/posts")
+                        .session(session))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value("404 NOT_FOUND"));
+    }
+
+    /**
+     * /posts/{articleId} GET 게시물 조회 테스트 : 수정 전후로 조회한 경우. 수정 후에는 수정된 내용이 조회된다.
+     */
+    @Test
+    public void findArticleAfterUpdateSuccess() throws Exception {
+        //given
+        //회원가입
+        User user = new User("wnsx0000@gmail.com", "pasword~~", "username~~");
+        userService.saveUser(user);
+
+        //세션 생성(로그인)
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("id", user.getId());
+        session.setAttribute("email", user.getEmail());
+        session.setAttribute("username", user.getUsername());
+
+        //게시물 등록
+        Article article = new Article("content~~", "title~~");
+        articleService.saveArticle(article, user.getId());
+
+        //when, then
+        mockMvc.perform(get("/posts/" + article.getId())
+                        .session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articleId").value(article.getId()))
+                .andExpect(jsonPath("$.email").value("wnsx0000@gmail.com"))
+                .andExpect(jsonPath("$.title").value("title~~"));
+
+        ArticleRequestDto requestDto = new ArticleRequestDto("newContent", "newTitle");
+        mockMvc.perform(put("/posts/" + article.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto))
+                        .session(session))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/posts/" + article.getId())
+                        .session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("newTitle"))
+                .andExpect(jsonPath("$.content").value("newContent"));
+    }
+
+    /**
+     * /posts/{articleId} GET 게시물 조회 테스트 : 해당 id의 게시글이 존재하지 않는 경우. (404)
+     * → BlogResourceNotFoundException
+     */
+    @Test
+    public void findArticleNotFoundFailure() throws Exception {
+        //given
+        //회원가입
+        User user = new User("wnsx0000@gmail.com", "pasword~~", "username~~");
+        userService.saveUser(user);
+
+        //세션 생성(로그인)
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("id", user.getId());
+        session.setAttribute("email", user.getEmail());
+        session.setAttribute("username", user.getUsername());
+
+        //when, then
+        mockMvc.perform(get("/posts/" + 0L)
+                        .session(session))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value("404 NOT_FOUND"));
+    }
 }
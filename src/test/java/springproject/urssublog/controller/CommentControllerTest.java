@@ -409,4 +409,63 @@ public class CommentControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.status").value("400 BAD_REQUEST"));
     }
+
+    /**
+     * /posts/{articleId}/comments GET 댓글 목록 조회 테스트 : 성공
+     */
+    @Test
+    public void findCommentsSuccess() throws Exception {
+        //given
+        //회원가입
+        User user = new User("wnsx0000@gmail.com", "pasword~~", "username~~");
+        userService.saveUser(user);
+
+        //세션 생성(로그인)
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("id", user.getId());
+        session.setAttribute("email", user.getEmail());
+        session.setAttribute("username", user.getUsername());
+
+        //게시물 등록
+        Article article = new Article("content~~", "title~~");
+        articleService.saveArticle(article, user.getId());
+
+        //댓글 등록
+        commentService.saveComment(new Comment("first comment"), article.getId(), user.getId());
+        commentService.saveComment(new Comment("second comment"), article.getId(), user.getId());
+
+        //when, then
+        mockMvc.perform(get("/posts/" + article.getId() + "/comments")
+                        .param("size", "1")
+                        .session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].content").value("first comment"))
+                .andExpect(jsonPath("$.content[0].email").value("wnsx0000@gmail.com"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    /**
+     * /posts/{articleId}/comments GET 댓글 목록 조회 테스트 : 해당 id의 게시글이 존재하지 않는 경우. (404)
+     * → BlogResourceNotFoundException
+     */
+    @Test
+    public void findCommentsNotFoundFailure() throws Exception {
+        //given
+        //회원가입
+        User user = new User("wnsx0000@gmail.com", "pasword~~", "username~~");
+        userService.saveUser(user);
+
+        //세션 생성(로그인)
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("id", user.getId());
+        session.setAttribute("email", user.getEmail());
+        session.setAttribute("username", user.getUsername());
+
+        //when, then
+        mockMvc.perform(get("/posts/" + 10L + "/comments")
+                        .session(session))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value("404 NOT_FOUND"));
+    }
 }
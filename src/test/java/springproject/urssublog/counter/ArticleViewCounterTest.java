@@ -0,0 +1,106 @@
+package springproject.urssublog.counter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ArticleViewCounter 테스트. MySQL 대신 H2(MySQL 호환 모드) 메모리 DB의 article 테이블(article_id, view_count)을 사용한다.
+ */
+public class ArticleViewCounterTest {
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:view;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS article (article_id BIGINT PRIMARY KEY, view_count BIGINT DEFAULT 0 NOT NULL)");
+        jdbcTemplate.update("DELETE FROM article");
+        for (long id = 1; id <= 10; id++) {
+            jdbcTemplate.update("INSERT INTO article (article_id) VALUES (?)", id);
+        }
+    }
+
+    private long viewCountOf(long articleId) {
+        return jdbcTemplate.queryForObject("SELECT view_count FROM article WHERE article_id = ?", Long.class, articleId);
+    }
+
+    /**
+     * flush 테스트 : 여러 스레드에서 누적한 조회수가 합산되어 반영되고, 게시글 수가 batch 크기보다 많으면 나누어 반영하는 경우.
+     */
+    @Test
+    public void flushSuccess() throws InterruptedException {
+        //given
+        ArticleViewCounter counter = new ArticleViewCounter(jdbcTemplate, 10_000, 3, new SimpleMeterRegistry());
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    counter.increment(1L);
+                    counter.increment(2L + i % 8);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        //when
+        int flushed = counter.flush();
+
+        //then
+        assertThat(flushed).isEqualTo(9);
+        assertThat(counter.pendingKeyCount()).isZero();
+        assertThat(viewCountOf(1L)).isEqualTo(8000);
+        for (long id = 2; id <= 9; id++) {
+            assertThat(viewCountOf(id)).isEqualTo(1000);
+        }
+        assertThat(viewCountOf(10L)).isZero();
+        assertThat(counter.flush()).isZero();
+    }
+
+    /**
+     * 조기 flush 테스트 : 반영하지 않은 항목이 maxPendingKeys를 넘으면 주기를 기다리지 않고 flush하는 경우.
+     */
+    @Test
+    public void earlyFlushSuccess() throws InterruptedException {
+        //given
+        ArticleViewCounter counter = new ArticleViewCounter(jdbcTemplate, 2, 500, new SimpleMeterRegistry());
+
+        //when
+        counter.increment(1L);
+        counter.increment(2L);
+        counter.increment(3L);
+
+        //then
+        long deadline = System.currentTimeMillis() + 5_000;
+        while(viewCountOf(3L) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(viewCountOf(1L) + viewCountOf(2L) + viewCountOf(3L)).isEqualTo(3);
+    }
+
+    /**
+     * 종료 테스트 : 종료 시 남은 조회수를 반영하는 경우.
+     */
+    @Test
+    public void flushOnDestroySuccess() {
+        //given
+        ArticleViewCounter counter = new ArticleViewCounter(jdbcTemplate, 10_000, 500, new SimpleMeterRegistry());
+        counter.increment(5L);
+        counter.increment(5L);
+
+        //when
+        counter.destroy();
+
+        //then
+        assertThat(viewCountOf(5L)).isEqualTo(2);
+    }
+}
@@ -7,6 +7,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -18,6 +21,11 @@ import springproject.urssublog.dto.user.UserResponseDto;
 import springproject.urssublog.dto.user.UserSignupRequestDto;
 import springproject.urssublog.service.UserService;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -48,5 +56,42 @@ public class FilterTest {
                 .andExpect(jsonPath("$.status").value("400 BAD_REQUEST"));
     }
 
+    /**
+     * login check filter 테스트 : 로그인 중이 아닌 경우 응답 본문 전체 확인
+     */
+    @Test
+    public void loginCheckFilterNoLoginResponseBodyTest() throws Exception {
+        //given, when, then
+        mockMvc.perform(get("/posts/" + 10L + "/comments"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.time").isNotEmpty())
+                .andExpect(jsonPath("$.status").value("400 BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value("로그인 중이 아닙니다."))
+                .andExpect(jsonPath("$.requestURI").value("/posts/10/comments"));
+    }
+
+    /**
+     * concurrency limit filter 테스트 : 처리 중인 요청 수가 한도에 도달한 경우 503으로 바로 응답
+     */
+    @Test
+    public void concurrencyLimitFilterRejectTest() throws Exception {
+        //given
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(10));
+        MockHttpServletResponse innerResponse = new MockHttpServletResponse();
+        MockHttpServletResponse outerResponse = new MockHttpServletResponse();
+
+        //when : 첫 번째 요청이 처리 중인 동안 두 번째 요청이 들어온다.
+        filter.doFilter(new MockHttpServletRequest("GET", "/posts"), outerResponse, (request, response) ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/posts"), innerResponse, new MockFilterChain()));
+
+        //then
+        assertThat(outerResponse.getStatus()).isEqualTo(200);
+        assertThat(innerResponse.getStatus()).isEqualTo(503);
+        assertThat(innerResponse.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(innerResponse.getContentAsString(StandardCharsets.UTF_8)).contains("503 SERVICE_UNAVAILABLE");
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
 
 }
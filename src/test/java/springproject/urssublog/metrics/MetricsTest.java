@@ -0,0 +1,147 @@
+package springproject.urssublog.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import springproject.urssublog.domain.Article;
+import springproject.urssublog.domain.User;
+import springproject.urssublog.dto.article.ArticleRequestDto;
+import springproject.urssublog.service.ArticleService;
+import springproject.urssublog.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * metrics 테스트. meter registry는 테스트 컨텍스트 전체에서 공유되므로 요청 전후의 값을 비교한다.
+ */
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class MetricsTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserService userService; // 테스트 데이터 설정용
+    @Autowired
+    private ArticleService articleService; // 테스트 데이터 설정용
+
+    private MockHttpSession login(User user) {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("id", user.getId());
+        session.setAttribute("email", user.getEmail());
+        session.setAttribute("username", user.getUsername());
+        return session;
+    }
+
+    private long timerCount(String name, String tagKey, String tagValue) {
+        Timer timer = meterRegistry.find(name).tag(tagKey, tagValue).timer();
+        return (timer != null ? timer.count() : 0);
+    }
+
+    /**
+     * 요청당 SQL statement 수, service timer 테스트
+     */
+    @Test
+    public void sqlStatementAndServiceTimerTest() throws Exception {
+        //given
+        User user = new User("wnsx0000@gmail.com", "pasword~~", "username~~");
+        userService.saveUser(user);
+        Article article = new Article("content~~", "title~~");
+        articleService.saveArticle(article, user.getId());
+        long serviceCount = timerCount("blog.service", "method", "findComments");
+
+        //when
+        mockMvc.perform(get("/posts/" + article.getId() + "/comments").session(login(user)))
+                .andExpect(status().isOk());
+
+        //then
+        DistributionSummary statements = meterRegistry.find("blog.request.sql.statements")
+                .tags("method", "GET", "uri", "/posts/{articleId}/comments")
+                .summary();
+        assertThat(statements).isNotNull();
+        assertThat(statements.count()).isPositive();
+        assertThat(statements.max()).isGreaterThanOrEqualTo(2); // 게시글 존재 확인, 목록 조회
+        assertThat(timerCount("blog.service", "method", "findComments")).isEqualTo(serviceCount + 1);
+    }
+
+    /**
+     * 요청당 SQL statement 수 테스트 : 표준이 아닌 method는 OTHER 하나로 기록되는 경우.
+     */
+    @Test
+    public void sqlStatementUnknownMethodTest() throws Exception {
+        //given
+        User user = new User("wnsx0000@gmail.com", "pasword~~", "username~~");
+        userService.saveUser(user);
+
+        //when
+        mockMvc.perform(request(HttpMethod.valueOf("FOO1"), "/posts").session(login(user)));
+        mockMvc.perform(request(HttpMethod.valueOf("FOO2"), "/posts").session(login(user)));
+
+        //then
+        assertThat(meterRegistry.find("blog.request.sql.statements").tag("method", "OTHER").summary()).isNotNull();
+        assertThat(meterRegistry.find("blog.request.sql.statements").tag("method", "FOO1").summary()).isNull();
+        assertThat(meterRegistry.find("blog.request.sql.statements").tag("method", "FOO2").summary()).isNull();
+    }
+
+    /**
+     * login check filter timer 테스트 : 로그인 중이 아닌 요청
+     */
+    @Test
+    public void loginCheckFilterTimerTest() throws Exception {
+        //given
+        long rejected = timerCount("blog.filter.login-check", "outcome", "rejected");
+
+        //when
+        mockMvc.perform(get("/posts/" + 10L + "/comments"))
+                .andExpect(status().isBadRequest());
+
+        //then
+        assertThat(timerCount("blog.filter.login-check", "outcome", "rejected")).isEqualTo(rejected + 1);
+    }
+
+    /**
+     * 예외 counter 테스트 : 존재하지 않는 게시글 수정(BlogNotAuthorizedException)
+     */
+    @Test
+    public void exceptionCounterTest() throws Exception {
+        //given
+        User user = new User("wnsx0000@gmail.com", "pasword~~", "username~~");
+        userService.saveUser(user);
+        Counter counter = meterRegistry.counter("blog.exceptions",
+                "exception", "BlogNotAuthorizedException", "status", "400 BAD_REQUEST");
+        double before = counter.count();
+
+        //when
+        mockMvc.perform(put("/posts/" + 0L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ArticleRequestDto("content~~", "title~~")))
+                        .session(login(user)))
+                .andExpect(status().isBadRequest());
+
+        //then
+        assertThat(counter.count()).isEqualTo(before + 1);
+    }
+}
@@ -5,14 +5,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.transaction.annotation.Transactional;
 import springproject.urssublog.domain.Article;
 import springproject.urssublog.domain.Comment;
 import springproject.urssublog.domain.User;
+import springproject.urssublog.dto.comment.CommentActivityDto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -76,4 +79,31 @@ public class CommentRepositoryTest {
         //then
         assertThat(commentRepository.findById(comment.getId()).isPresent()).isFalse();
     }
+
+    /**
+     * 최근 댓글 조회 테스트 : id 순서와 관계없이 작성 시간 순으로 커서를 따라 조회하는 경우. (pooled-id처럼 id가 작성 순서와 다른 경우)
+     */
+    @Test
+    public void findActivitiesAfterSuccess() {
+        //given
+        LocalDateTime base = LocalDateTime.now().plusYears(10);
+        Comment later = new Comment("later");
+        later.setCreatedTime(base.plusMinutes(10));
+        commentRepository.save(later);
+        Comment earlier = new Comment("earlier");
+        earlier.setCreatedTime(base.plusMinutes(5));
+        commentRepository.save(earlier);
+        Comment tooOld = new Comment("tooOld");
+        tooOld.setCreatedTime(base.minusMinutes(5));
+        commentRepository.save(tooOld);
+
+        //when
+        List<CommentActivityDto> page1 = commentRepository.findActivitiesAfter(base, 0L, PageRequest.of(0, 1));
+        CommentActivityDto cursor = page1.get(0);
+        List<CommentActivityDto> page2 = commentRepository.findActivitiesAfter(cursor.createdTime(), cursor.id(), PageRequest.of(0, 1));
+
+        //then
+        assertThat(page1).extracting(CommentActivityDto::id).containsExactly(earlier.getId());
+        assertThat(page2).extracting(CommentActivityDto::id).containsExactly(later.getId());
+    }
 }
@@ -0,0 +1,97 @@
+package springproject.urssublog.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import springproject.urssublog.domain.User;
+import springproject.urssublog.exception.classes.BlogUserNotFoundException;
+import springproject.urssublog.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * second-level-cache 프로필의 User 2차 캐시, findByEmail query cache 테스트.
+ * 캐시는 commit된 데이터만 보관하므로 @Transactional을 사용하지 않고, 테스트 데이터는 회원 탈퇴로 정리한다.
+ */
+@Slf4j
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles({"test", "second-level-cache"})
+public class UserSecondLevelCacheTest {
+    @Autowired
+    private JpaUserRepository userRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * User 2차 캐시 테스트 : 한 번 조회된 회원은 SQL 없이 캐시에서 조회되고, 회원 탈퇴 후에는 조회되지 않는다.
+     */
+    @Test
+    public void findByIdFromCacheAndEvictOnDelete() {
+        //given
+        User user = new User("cache@cache.com", "password~", "cache~");
+        userService.saveUser(user);
+        try {
+            userRepository.findById(user.getId());
+
+            //when
+            statistics.clear();
+            User cached = userRepository.findById(user.getId()).orElseThrow();
+
+            //then
+            assertThat(cached.getEmail()).isEqualTo("cache@cache.com");
+            assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+            assertThat(statistics.getPrepareStatementCount()).isZero();
+        }
+        finally {
+            userService.deleteUser(user.getId());
+        }
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+    }
+
+    /**
+     * findByEmail query cache 테스트 : 가입 전의 조회 결과(없음)는 가입 후 무효화되고, 탈퇴 후에는 다시 조회되지 않는다.
+     */
+    @Test
+    public void findByEmailQueryCacheInvalidation() {
+        //given
+        assertThrows(BlogUserNotFoundException.class,
+                () -> userService.userLoginCheck(new User("query@cache.com", "password~")));
+        User user = new User("query@cache.com", "password~", "query~");
+        userService.saveUser(user);
+        try {
+            //when
+            User loginUser = userService.userLoginCheck(new User("query@cache.com", "password~"));
+            statistics.clear();
+            userService.userLoginCheck(new User("query@cache.com", "password~"));
+
+            //then
+            assertThat(loginUser.getId()).isEqualTo(user.getId());
+            assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+            assertThat(statistics.getPrepareStatementCount()).isZero();
+        }
+        finally {
+            userService.deleteUser(user.getId());
+        }
+        assertThrows(BlogUserNotFoundException.class,
+                () -> userService.userLoginCheck(new User("query@cache.com", "password~")));
+    }
+}
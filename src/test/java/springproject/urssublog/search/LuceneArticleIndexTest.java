@@ -0,0 +1,115 @@
+package springproject.urssublog.search;
+
+import org.apache.lucene.analysis.ko.KoreanAnalyzer;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import springproject.urssublog.dto.article.ArticleSearchDocumentDto;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LuceneArticleIndex 테스트. 메모리 디렉터리(ByteBuffersDirectory)에 색인한다.
+ */
+public class LuceneArticleIndexTest {
+    private LuceneArticleIndex index;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        index = new LuceneArticleIndex(new ByteBuffersDirectory(), new KoreanAnalyzer());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        index.close();
+    }
+
+    /**
+     * 검색 테스트 : 한국어 검색어를 형태소 단위로 찾고, 모든 단어를 포함하는 게시글만 찾는 경우.
+     */
+    @Test
+    public void searchTest() throws IOException {
+        //given
+        index.upsert(List.of(
+                new ArticleSearchDocumentDto(1L, "스프링 게시판", "게시판을 만들었습니다."),
+                new ArticleSearchDocumentDto(2L, "여행 후기", "제주도에서 찍은 사진들입니다."),
+                new ArticleSearchDocumentDto(3L, "Spring Boot 설정", "게시판 설정을 정리했습니다.")));
+        index.commit();
+
+        //when
+        List<LuceneArticleIndex.Hit> board = index.search("게시판", 10);
+        List<LuceneArticleIndex.Hit> photo = index.search("사진", 10);
+        List<LuceneArticleIndex.Hit> both = index.search("SPRING 게시판", 10);
+
+        //then
+        assertThat(board).extracting(LuceneArticleIndex.Hit::articleId).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(photo).extracting(LuceneArticleIndex.Hit::articleId).containsExactly(2L);
+        assertThat(both).extracting(LuceneArticleIndex.Hit::articleId).containsExactly(3L);
+        assertThat(both.get(0).title()).isEqualTo("Spring Boot 설정");
+    }
+
+    /**
+     * 관련도 테스트 : 제목에 검색어가 있는 게시글이 본문에만 있는 게시글보다 먼저 나오는 경우.
+     */
+    @Test
+    public void titleBoostTest() throws IOException {
+        //given
+        index.upsert(List.of(
+                new ArticleSearchDocumentDto(1L, "일상", "오늘은 캐시 설정을 바꿨다."),
+                new ArticleSearchDocumentDto(2L, "캐시 정리", "오늘 한 일을 적는다.")));
+        index.commit();
+
+        //when
+        List<LuceneArticleIndex.Hit> hits = index.search("캐시", 10);
+
+        //then
+        assertThat(hits).extracting(LuceneArticleIndex.Hit::articleId).containsExactly(2L, 1L);
+    }
+
+    /**
+     * 변경 테스트 : 같은 id는 교체되고, 삭제한 게시글은 찾지 않으며, commit 전의 변경은 보이지 않는 경우.
+     */
+    @Test
+    public void upsertAndDeleteTest() throws IOException {
+        //given
+        assertThat(index.isNew()).isTrue();
+        index.upsert(List.of(
+                new ArticleSearchDocumentDto(1L, "사과 제목", "본문"),
+                new ArticleSearchDocumentDto(2L, "포도 제목", "본문")));
+        index.commit();
+
+        //when
+        index.upsert(List.of(new ArticleSearchDocumentDto(1L, "수박 제목", "본문")));
+        index.delete(List.of(2L));
+        List<LuceneArticleIndex.Hit> beforeCommit = index.search("포도", 10);
+        index.commit();
+
+        //then
+        assertThat(beforeCommit).extracting(LuceneArticleIndex.Hit::articleId).containsExactly(2L);
+        assertThat(index.search("포도", 10)).isEmpty();
+        assertThat(index.search("사과", 10)).isEmpty();
+        assertThat(index.search("수박", 10)).extracting(LuceneArticleIndex.Hit::title).containsExactly("수박 제목");
+        assertThat(index.numDocs()).isEqualTo(1);
+        assertThat(index.isNew()).isFalse();
+    }
+
+    /**
+     * 검색어 테스트 : 단어가 없는 검색어는 빈 목록을 반환하는 경우.
+     */
+    @Test
+    public void blankQueryTest() throws IOException {
+        //given
+        index.upsert(List.of(new ArticleSearchDocumentDto(1L, "제목", "본문")));
+        index.commit();
+
+        //when
+        List<LuceneArticleIndex.Hit> hits = index.search("  ?! ", 10);
+
+        //then
+        assertThat(hits).isEmpty();
+    }
+}
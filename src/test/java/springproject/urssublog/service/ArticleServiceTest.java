@@ -10,7 +10,21 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.transaction.annotation.Transactional;
 import springproject.urssublog.domain.Article;
 import springproject.urssublog.domain.User;
+import springproject.urssublog.dto.article.ArticleResponseDto;
+import springproject.urssublog.dto.article.ArticleSearchResponseDto;
+import springproject.urssublog.dto.article.ArticleStatsResponseDto;
+import springproject.urssublog.dto.article.ArticleSummaryResponseDto;
+import springproject.urssublog.dto.article.TrendingArticleResponseDto;
+import springproject.urssublog.dto.page.CursorPageResponseDto;
+import springproject.urssublog.exception.classes.BlogNotAuthorizedException;
 import springproject.urssublog.exception.classes.BlogResourceNotFoundException;
+import springproject.urssublog.repository.JpaArticleRepository;
+import springproject.urssublog.search.ArticleSearchIndexer;
+import springproject.urssublog.sketch.ArticleVisitorTracker;
+import springproject.urssublog.sketch.TrendingArticleTracker;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -25,6 +39,12 @@ public class ArticleServiceTest {
     private UserService userService;
     @Autowired
     private ArticleService articleService;
+    @Autowired
+    private TrendingArticleTracker trendingArticleTracker;
+    @Autowired
+    private ArticleVisitorTracker articleVisitorTracker;
+    @Autowired
+    private ArticleSearchIndexer articleSearchIndexer;
 
     /**
      * Article service 계층 게시물 등록 테스트 : 성공한 경우.
@@ -58,12 +78,44 @@ public class ArticleServiceTest {
         //when
         Article newArticle = new Article("newContent", "newTitle");
         newArticle.setId(article.getId());
-        articleService.updateArticle(newArticle);
+        articleService.updateArticle(newArticle, user.getId());
 
         //then
         assertThat(articleService.getTitleById(article.getId())).isEqualTo("newTitle");
     }
 
+    /**
+     * Article service 계층 게시물 수정 테스트 : 다른 회원의 게시글이거나 게시글이 존재하지 않는 경우. → BlogNotAuthorizedException
+     * 수정된 행이 없으면 내용이 바뀌지 않아야 한다.
+     */
+    @Test
+    public void articleUpdateNotAuthorizedFailure() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        User anotherUser = new User("another~", "password~", "another~");
+        userService.saveUser(anotherUser);
+        Article article = new Article("content~~", "title~~");
+        articleService.saveArticle(article, anotherUser.getId());
+
+        //when
+        Article newArticle = new Article("newContent", "newTitle");
+        newArticle.setId(article.getId());
+        Article missingArticle = new Article("newContent", "newTitle");
+        missingArticle.setId(article.getId() + 100);
+
+        //then
+        BlogNotAuthorizedException thrown1 = assertThrows(BlogNotAuthorizedException.class, () -> {
+            articleService.updateArticle(newArticle, user.getId());
+        });
+        log.debug("articleUpdateNotAuthorizedFailure(), another user's article exception message={}", thrown1.getMessage());
+        BlogNotAuthorizedException thrown2 = assertThrows(BlogNotAuthorizedException.class, () -> {
+            articleService.updateArticle(missingArticle, user.getId());
+        });
+        log.debug("articleUpdateNotAuthorizedFailure(), no article exception message={}", thrown2.getMessage());
+        assertThat(articleService.getTitleById(article.getId())).isEqualTo("title~~");
+    }
+
 //    /**
 //     * Article service 계층 게시물 수정 테스트 : 게시글 수정 시 해당 id의 게시글이 존재하지 않는 경우.
 //     * → BlogResourceNotFoundException
@@ -116,4 +168,213 @@ public class ArticleServiceTest {
 //        });
 //        log.debug("articleDeleteNotFoundFailure(), no article to delete exception message={}", thrown.getMessage());
 //    }
+
+    /**
+     * Article service 계층 게시물 목록 조회 테스트 : 커서를 따라 모든 페이지를 조회하는 경우.
+     */
+    @Test
+    public void findArticlesByUserCursorSuccess() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        for (int i = 0; i < 5; i++) {
+            articleService.saveArticle(new Article("content" + i, "title" + i), user.getId());
+        }
+
+        //when
+        CursorPageResponseDto<ArticleSummaryResponseDto> page1 = articleService.findArticlesByUser(user.getId(), null, null, 2);
+        CursorPageResponseDto<ArticleSummaryResponseDto> page2 = articleService.findArticlesByUser(
+                user.getId(), page1.getNextCursorTime(), page1.getNextCursorId(), 2);
+        CursorPageResponseDto<ArticleSummaryResponseDto> page3 = articleService.findArticlesByUser(
+                user.getId(), page2.getNextCursorTime(), page2.getNextCursorId(), 2);
+
+        //then
+        assertThat(page1.getContent()).extracting(ArticleSummaryResponseDto::getTitle).containsExactly("title4", "title3");
+        assertThat(page2.getContent()).extracting(ArticleSummaryResponseDto::getTitle).containsExactly("title2", "title1");
+        assertThat(page3.getContent()).extracting(ArticleSummaryResponseDto::getTitle).containsExactly("title0");
+        assertThat(page1.isHasNext()).isTrue();
+        assertThat(page3.isHasNext()).isFalse();
+    }
+
+    /**
+     * Article service 계층 게시물 목록 조회 테스트 : 본문은 앞부분(preview)만 조회하는 경우.
+     */
+    @Test
+    public void findArticlesPreviewSuccess() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        String content = "c".repeat(JpaArticleRepository.PREVIEW_LENGTH + 50);
+        articleService.saveArticle(new Article(content, "title~~"), user.getId());
+        articleService.saveArticle(new Article("short", "title~~"), user.getId());
+
+        //when
+        CursorPageResponseDto<ArticleSummaryResponseDto> page = articleService.findArticlesByUser(user.getId(), null, null, 2);
+
+        //then
+        assertThat(page.getContent()).extracting(ArticleSummaryResponseDto::getPreview)
+                .containsExactly("short", "c".repeat(JpaArticleRepository.PREVIEW_LENGTH));
+    }
+
+    /**
+     * Article service 계층 게시물 일괄 등록 테스트 : 성공한 경우.
+     */
+    @Test
+    public void articleSaveAllSuccess() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        List<Article> articles = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            articles.add(new Article("content" + i, "title" + i));
+        }
+
+        //when
+        List<Long> ids = articleService.saveArticles(articles, user.getId());
+
+        //then
+        assertThat(ids).hasSize(3).doesNotContainNull();
+        assertThat(articleService.getTitleById(ids.get(2))).isEqualTo("title2");
+    }
+
+    /**
+     * Article service 계층 게시물 조회 테스트 : 수정 후 조회하면 캐시된 이전 내용이 아닌 수정된 내용이 조회된다.
+     */
+    @Test
+    public void findArticleAfterUpdateSuccess() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        Article article = new Article("content~~", "title~~");
+        articleService.saveArticle(article, user.getId());
+        ArticleResponseDto cached = articleService.findArticle(article.getId());
+
+        //when
+        Article newArticle = new Article("newContent", "newTitle");
+        newArticle.setId(article.getId());
+        articleService.updateArticle(newArticle, user.getId());
+        ArticleResponseDto responseDto = articleService.findArticle(article.getId());
+
+        //then
+        assertThat(cached.getTitle()).isEqualTo("title~~");
+        assertThat(responseDto.getEmail()).isEqualTo("email~");
+        assertThat(responseDto.getTitle()).isEqualTo("newTitle");
+        assertThat(responseDto.getContent()).isEqualTo("newContent");
+    }
+
+    /**
+     * Article service 계층 게시물 조회 테스트 : 삭제된 게시글을 조회하는 경우.
+     * → BlogResourceNotFoundException
+     */
+    @Test
+    public void findArticleAfterDeleteFailure() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        Article article = new Article("content~~", "title~~");
+        articleService.saveArticle(article, user.getId());
+        articleService.findArticle(article.getId());
+
+        //when
+        articleService.deleteArticle(article.getId());
+
+        //then
+        assertThrows(BlogResourceNotFoundException.class, () -> articleService.findArticle(article.getId()));
+    }
+
+    /**
+     * Article service 계층 인기 게시글 조회 테스트 : 조회가 많은 게시글은 포함되고, 삭제된 게시글은 빠지는 경우.
+     */
+    @Test
+    public void findTrendingArticlesSuccess() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        Article article = new Article("content~~", "title~~");
+        articleService.saveArticle(article, user.getId());
+        Article deleted = new Article("content~~", "deleted~~");
+        articleService.saveArticle(deleted, user.getId());
+        for (int i = 0; i < 100_000; i++) {
+            trendingArticleTracker.recordView(article.getId());
+            trendingArticleTracker.recordView(deleted.getId());
+        }
+        articleService.deleteArticle(deleted.getId());
+
+        //when
+        List<TrendingArticleResponseDto> trending = articleService.findTrendingArticles(100);
+
+        //then
+        assertThat(trending).extracting(TrendingArticleResponseDto::getArticleId)
+                .contains(article.getId())
+                .doesNotContain(deleted.getId());
+        assertThat(trending).filteredOn(dto -> dto.getArticleId().equals(article.getId()))
+                .extracting(TrendingArticleResponseDto::getTitle).containsExactly("title~~");
+    }
+
+    /**
+     * Article service 계층 게시글 통계 조회 테스트 : 같은 회원의 방문은 한 번으로 세고, flush 전후의 방문자 수가 같은 경우.
+     */
+    @Test
+    public void findArticleStatsSuccess() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        Article article = new Article("content~~", "title~~");
+        articleService.saveArticle(article, user.getId());
+        for (long visitor = 1; visitor <= 3; visitor++) {
+            articleVisitorTracker.recordVisit(article.getId(), visitor);
+            articleVisitorTracker.recordVisit(article.getId(), visitor);
+        }
+
+        //when
+        ArticleStatsResponseDto beforeFlush = articleService.findArticleStats(article.getId());
+        articleVisitorTracker.flush();
+        articleVisitorTracker.recordVisit(article.getId(), 4L);
+        ArticleStatsResponseDto afterFlush = articleService.findArticleStats(article.getId());
+
+        //then
+        assertThat(beforeFlush.getVisitorsToday()).isEqualTo(3);
+        assertThat(afterFlush.getVisitorsToday()).isEqualTo(4);
+        assertThat(afterFlush.getVisitorsLast7Days()).isEqualTo(4);
+        assertThat(afterFlush.getVisitorsLast30Days()).isEqualTo(4);
+        assertThat(afterFlush.getCommentCount()).isZero();
+        assertThrows(BlogResourceNotFoundException.class, () -> articleService.findArticleStats(-1L));
+    }
+
+    /**
+     * Article service 계층 게시글 검색 테스트 : 등록, 수정, 삭제가 변경 기록(article_change)을 통해 색인에 반영되는 경우.
+     * 변경 기록은 게시글을 변경하는 트랜잭션 안에서 남으므로, 테스트 트랜잭션 안에서 flush하면 같은 방법으로 반영된다.
+     */
+    @Test
+    public void searchArticlesSuccess() {
+        //given
+        articleSearchIndexer.rebuild();
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        Article article = new Article("lucene 색인으로 검색하는 게시글", "zyxwvu 검색 테스트");
+        articleService.saveArticle(article, user.getId());
+        articleSearchIndexer.flush();
+
+        //when
+        List<ArticleSearchResponseDto> saved = articleService.searchArticles("zyxwvu lucene", 10);
+        Article newArticle = new Article("수정한 본문", "qponml 수정한 제목");
+        newArticle.setId(article.getId());
+        articleService.updateArticle(newArticle, user.getId());
+        articleSearchIndexer.flush();
+        List<ArticleSearchResponseDto> oldTitle = articleService.searchArticles("zyxwvu", 10);
+        List<ArticleSearchResponseDto> updated = articleService.searchArticles("qponml", 10);
+        articleService.deleteArticle(article.getId());
+        List<ArticleSearchResponseDto> deletedBeforeFlush = articleService.searchArticles("qponml", 10);
+        int flushed = articleSearchIndexer.flush();
+        List<ArticleSearchResponseDto> deleted = articleService.searchArticles("qponml", 10);
+
+        //then
+        assertThat(saved).extracting(ArticleSearchResponseDto::getArticleId).containsExactly(article.getId());
+        assertThat(oldTitle).isEmpty();
+        assertThat(updated).extracting(ArticleSearchResponseDto::getTitle).containsExactly("qponml 수정한 제목");
+        assertThat(deletedBeforeFlush).isEmpty();
+        assertThat(flushed).isEqualTo(1);
+        assertThat(deleted).isEmpty();
+        assertThat(articleService.searchArticles("  ", 10)).isEmpty();
+    }
 }
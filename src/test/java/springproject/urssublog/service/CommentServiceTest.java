@@ -1,5 +1,6 @@
 package springproject.urssublog.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,6 +12,10 @@ import org.springframework.transaction.annotation.Transactional;
 import springproject.urssublog.domain.Article;
 import springproject.urssublog.domain.Comment;
 import springproject.urssublog.domain.User;
+import springproject.urssublog.dto.comment.CommentSummaryResponseDto;
+import springproject.urssublog.dto.page.CursorPageResponseDto;
+
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.as;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,6 +32,16 @@ public class CommentServiceTest {
     private ArticleService articleService;
     @Autowired
     private CommentService commentService;
+    @Autowired
+    private CommentCountReconciler commentCountReconciler;
+    @Autowired
+    private EntityManager em;
+
+    private int commentCountOf(Long articleId) {
+        return em.createQuery("select a.commentCount from Article a where a.id = :id", Integer.class)
+                .setParameter("id", articleId)
+                .getSingleResult();
+    }
 
     /**
      * Comment service 계층 댓글 등록 테스트 : 성공한 경우.
@@ -65,7 +80,7 @@ public class CommentServiceTest {
         //when
         Comment newComment = new Comment("new comment...!");
         newComment.setId(commentId);
-        commentService.updateComment(newComment);
+        commentService.updateComment(newComment, user.getId());
 
         //then
         assertThat(commentService.getContentById(commentId)).isEqualTo("new comment...!");
@@ -90,4 +105,94 @@ public class CommentServiceTest {
         //then
         assertThat(commentService.getContentById(commentId)).isNull();
     }
+
+    /**
+     * Comment service 계층 댓글 목록 조회 테스트 : 커서를 따라 다음 페이지를 조회하는 경우.
+     */
+    @Test
+    public void findCommentsCursorSuccess() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        Article article = new Article("content~~", "title~~");
+        articleService.saveArticle(article, user.getId());
+        for (int i = 0; i < 3; i++) {
+            commentService.saveComment(new Comment("comment" + i), article.getId(), user.getId());
+        }
+
+        //when
+        CursorPageResponseDto<CommentSummaryResponseDto> page1 = commentService.findComments(article.getId(), null, null, 2);
+        CursorPageResponseDto<CommentSummaryResponseDto> page2 = commentService.findComments(
+                article.getId(), page1.getNextCursorTime(), page1.getNextCursorId(), 2);
+
+        //then
+        assertThat(page1.getContent()).extracting(CommentSummaryResponseDto::getContent).containsExactly("comment0", "comment1");
+        assertThat(page1.isHasNext()).isTrue();
+        assertThat(page2.getContent()).extracting(CommentSummaryResponseDto::getContent).containsExactly("comment2");
+        assertThat(page2.isHasNext()).isFalse();
+    }
+
+    /**
+     * Comment service 계층 댓글 일괄 등록 테스트 : 성공한 경우.
+     */
+    @Test
+    public void saveCommentsSuccess() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        Article article = new Article("content~~", "title~~");
+        articleService.saveArticle(article, user.getId());
+        List<Comment> comments = List.of(new Comment("comment0"), new Comment("comment1"));
+
+        //when
+        List<Long> ids = commentService.saveComments(comments, article.getId(), user.getId());
+
+        //then
+        assertThat(ids).hasSize(2).doesNotContainNull();
+        assertThat(commentService.getContentById(ids.get(1))).isEqualTo("comment1");
+    }
+
+    /**
+     * Comment service 계층 게시글 댓글 수 테스트 : 댓글 등록, 일괄 등록, 삭제에 따라 comment_count가 변경되는 경우.
+     */
+    @Test
+    public void commentCountSuccess() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        Article article = new Article("content~~", "title~~");
+        articleService.saveArticle(article, user.getId());
+
+        //when
+        Long commentId = commentService.saveComment(new Comment("comment content~"), article.getId(), user.getId());
+        commentService.saveComments(List.of(new Comment("comment0"), new Comment("comment1")), article.getId(), user.getId());
+        commentService.deleteComment(commentId);
+
+        //then
+        assertThat(commentCountOf(article.getId())).isEqualTo(2);
+    }
+
+    /**
+     * 게시글 댓글 수 정합성 작업 테스트 : comment_count가 실제 댓글 수와 다른 게시글만 실제 값으로 맞추는 경우.
+     */
+    @Test
+    public void reconcileCommentCountSuccess() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        Article article = new Article("content~~", "title~~");
+        articleService.saveArticle(article, user.getId());
+        commentService.saveComment(new Comment("comment content~"), article.getId(), user.getId());
+        em.createQuery("update Article a set a.commentCount = 7 where a.id = :id")
+                .setParameter("id", article.getId())
+                .executeUpdate();
+
+        //when
+        int fixed = commentCountReconciler.reconcile();
+
+        //then
+        assertThat(fixed).isGreaterThanOrEqualTo(1);
+        assertThat(commentCountOf(article.getId())).isEqualTo(1);
+        assertThat(commentCountReconciler.reconcile()).isZero();
+    }
 }
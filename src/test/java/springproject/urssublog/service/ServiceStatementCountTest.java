@@ -0,0 +1,181 @@
+package springproject.urssublog.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+import springproject.urssublog.domain.Article;
+import springproject.urssublog.domain.Comment;
+import springproject.urssublog.domain.User;
+import springproject.urssublog.exception.classes.BlogDuplicatedUserException;
+import springproject.urssublog.sketch.TrendingArticleTracker;
+import springproject.urssublog.sketch.UserIdentityBloomFilter;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * service 계층 메서드별로 실행되는 SQL statement 수를 확인하는 테스트.
+ * 측정 전에 영속성 컨텍스트를 비우므로, 연관관계 fetch 전략이 바뀌어 불필요한 조회가 생기면 테스트가 실패한다.
+ */
+@Slf4j
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@Transactional
+@ActiveProfiles("test")
+public class ServiceStatementCountTest {
+    @Autowired
+    private EntityManager em;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ArticleService articleService;
+    @Autowired
+    private CommentService commentService;
+    @Autowired
+    private UserIdentityBloomFilter identityBloomFilter;
+    @Autowired
+    private TrendingArticleTracker trendingArticleTracker;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    // 영속성 컨텍스트를 비운 상태에서 action을 실행하고, flush까지 포함해 실행된 statement 수를 반환한다.
+    private long countStatements(Runnable action) {
+        em.flush();
+        em.clear();
+        statistics.clear();
+
+        action.run();
+        em.flush();
+
+        long count = statistics.getPrepareStatementCount();
+        log.debug("ServiceStatementCountTest, prepared statement count={}", count);
+        return count;
+    }
+
+    private User saveUser(String email, String username) {
+        User user = new User(email, "password~", username);
+        userService.saveUser(user);
+        return user;
+    }
+
+    private Article saveArticle(User user) {
+        Article article = new Article("content~~", "title~~");
+        articleService.saveArticle(article, user.getId());
+        return article;
+    }
+
+    private Comment saveComment(Article article, User user) {
+        Comment comment = new Comment("comment content~");
+        commentService.saveComment(comment, article.getId(), user.getId());
+        return comment;
+    }
+
+    /**
+     * UserService statement 수 테스트 : insert 1 (+ Bloom filter에 있을 수 있는 값만 중복 확인 조회) / 존재 확인 1 / email 조회 1 / 소유 확인 각 1
+     */
+    @Test
+    public void userServiceStatementCount() {
+        //given
+        User user = saveUser("email~", "username~");
+        Article article = saveArticle(user);
+        Comment comment = saveComment(article, user);
+
+        //새 값 : Bloom filter가 "확실히 없음"으로 판단한 값은 중복 확인 조회를 생략한다. (오탐인 경우에만 조회)
+        String newValue = "new-" + UUID.randomUUID();
+        long duplicateChecks = (identityBloomFilter.mightContainEmail(newValue) ? 1 : 0)
+                + (identityBloomFilter.mightContainUsername(newValue) ? 1 : 0);
+
+        //when, then
+        assertThat(countStatements(() -> saveUser(newValue, newValue))).isEqualTo(1 + duplicateChecks);
+        //중복된 email : 중복 확인 조회 1번 후 insert 없이 거부
+        assertThat(countStatements(() -> assertThrows(BlogDuplicatedUserException.class,
+                () -> saveUser("email~", "another~")))).isEqualTo(1);
+        assertThat(countStatements(() -> userService.userLoginCheck(new User("email~", "password~")))).isEqualTo(1);
+        assertThat(countStatements(() -> userService.checkIsArticleFromUser(article.getId(), user.getId()))).isEqualTo(1);
+        assertThat(countStatements(() -> userService.checkIsCommentFromUser(comment.getId(), user.getId()))).isEqualTo(1);
+    }
+
+    /**
+     * UserService 회원 삭제 statement 수 테스트 : 존재 확인, 삭제할 id 조회 3번(댓글, 게시글의 댓글, 게시글), 회원 delete
+     */
+    @Test
+    public void deleteUserStatementCount() {
+        //given
+        User user = saveUser("email~", "username~");
+
+        //when, then
+        assertThat(countStatements(() -> userService.deleteUser(user.getId()))).isEqualTo(5);
+    }
+
+    /**
+     * ArticleService statement 수 테스트
+     */
+    @Test
+    public void articleServiceStatementCount() {
+        //given
+        User user = saveUser("email~", "username~");
+        Article article = saveArticle(user);
+        Article newArticle = new Article("newContent", "newTitle");
+        newArticle.setId(article.getId());
+
+        //when, then
+        //user 조회, article insert
+        assertThat(countStatements(() -> saveArticle(user))).isEqualTo(2);
+        //update ... where article_id = ? and user_id = ? 한 번으로 수정, 소유 확인
+        assertThat(countStatements(() -> articleService.updateArticle(newArticle, user.getId()))).isEqualTo(1);
+        //article + user 조회, 두 번째부터는 캐시에서 조회
+        assertThat(countStatements(() -> articleService.findArticle(article.getId()))).isEqualTo(1);
+        assertThat(countStatements(() -> articleService.findArticle(article.getId()))).isEqualTo(0);
+        //목록 조회
+        assertThat(countStatements(() -> articleService.findArticles(null, null, 10))).isEqualTo(1);
+        //회원 존재 확인, 목록 조회
+        assertThat(countStatements(() -> articleService.findArticlesByUser(user.getId(), null, null, 10))).isEqualTo(2);
+        //인기 게시글 : 순위는 메모리에서, 게시글 요약은 id 목록으로 한 번에 조회
+        trendingArticleTracker.recordView(article.getId());
+        assertThat(countStatements(() -> articleService.findTrendingArticles(100))).isEqualTo(1);
+        //게시글 조회, 최근 30일 방문자 sketch 조회 한 번 (오늘, 7일, 30일은 메모리에서 병합)
+        assertThat(countStatements(() -> articleService.findArticleStats(article.getId()))).isEqualTo(2);
+        //article + user 조회, comment bulk delete, article delete, 방문자 sketch bulk delete
+        assertThat(countStatements(() -> articleService.deleteArticle(article.getId()))).isEqualTo(4);
+    }
+
+    /**
+     * CommentService statement 수 테스트
+     */
+    @Test
+    public void commentServiceStatementCount() {
+        //given
+        User user = saveUser("email~", "username~");
+        Article article = saveArticle(user);
+        Comment comment = saveComment(article, user);
+        Comment newComment = new Comment("new comment...!");
+        newComment.setId(comment.getId());
+
+        //when, then
+        //article 조회, user 조회, comment insert, article comment_count update
+        assertThat(countStatements(() -> saveComment(article, user))).isEqualTo(4);
+        //update ... where comment_id = ? and user_id = ? 한 번으로 수정, 소유 확인
+        assertThat(countStatements(() -> commentService.updateComment(newComment, user.getId()))).isEqualTo(1);
+        //게시글 존재 확인, 목록 조회
+        assertThat(countStatements(() -> commentService.findComments(article.getId(), null, null, 10))).isEqualTo(2);
+        //comment + article + user 조회, user.comments 초기화, article.comments 초기화, comment delete, article comment_count update
+        assertThat(countStatements(() -> commentService.deleteComment(comment.getId()))).isEqualTo(5);
+    }
+}
@@ -1,16 +1,33 @@
 package springproject.urssublog.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
+import springproject.urssublog.domain.Article;
+import springproject.urssublog.domain.Comment;
 import springproject.urssublog.domain.User;
+import springproject.urssublog.exception.classes.BlogDuplicatedUserException;
+import springproject.urssublog.exception.classes.BlogNotAuthorizedException;
 import springproject.urssublog.exception.classes.BlogResourceNotFoundException;
 import springproject.urssublog.exception.classes.BlogUserNotFoundException;
+import springproject.urssublog.repository.JpaArticleRepository;
+import springproject.urssublog.repository.JpaCommentRepository;
+import springproject.urssublog.repository.JpaUserRepository;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -23,6 +40,18 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 public class UserServiceTest {
     @Autowired
     private UserService userService;
+    @Autowired
+    private ArticleService articleService;
+    @Autowired
+    private CommentService commentService;
+    @Autowired
+    private JpaArticleRepository articleRepository;
+    @Autowired
+    private JpaCommentRepository commentRepository;
+    @Autowired
+    private JpaUserRepository userRepository;
+    @Autowired
+    private EntityManager em;
 
     /**
      * 비밀번호 암호화 테스트 : 성공한 경우.
@@ -58,6 +87,26 @@ public class UserServiceTest {
 
     }
 
+    /**
+     * User service 계층 회원가입 테스트 : email 또는 username이 이미 사용 중인 경우. → BlogDuplicatedUserException
+     */
+    @Test
+    public void userSignupDuplicatedFailure() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+
+        //when, then
+        BlogDuplicatedUserException thrown1 = assertThrows(BlogDuplicatedUserException.class, () -> {
+            userService.saveUser(new User("email~", "password~", "another~"));
+        });
+        log.debug("userSignupDuplicatedFailure(), duplicated email exception message={}", thrown1.getMessage());
+        BlogDuplicatedUserException thrown2 = assertThrows(BlogDuplicatedUserException.class, () -> {
+            userService.saveUser(new User("another~", "password~", "username~"));
+        });
+        log.debug("userSignupDuplicatedFailure(), duplicated username exception message={}", thrown2.getMessage());
+    }
+
     /**
      * User service 계층 회원 삭제 테스트 : 성공한 경우.
      */
@@ -75,6 +124,98 @@ public class UserServiceTest {
         assertThat(userService.getUsernameById(userId)).isNull();
     }
 
+    /**
+     * User service 계층 회원 삭제 테스트 : 게시글, 댓글이 chunk 크기보다 많은 회원을 삭제하는 경우.
+     * 회원의 게시글, 회원이 작성한 댓글, 회원의 게시글에 달린 다른 회원의 댓글이 모두 삭제되고 다른 회원의 게시글은 남아야 한다.
+     */
+    @Test
+    public void userDeleteInChunksSuccess() {
+        //given
+        UserService target = AopTestUtils.getTargetObject(userService);
+        ReflectionTestUtils.setField(target, "deletionChunkSize", 2);
+
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        User anotherUser = new User("another~", "password~", "another~");
+        userService.saveUser(anotherUser);
+
+        Article anotherArticle = new Article("content~~", "another title");
+        articleService.saveArticle(anotherArticle, anotherUser.getId());
+        Article lastArticle = null;
+        for (int i = 0; i < 5; i++) {
+            lastArticle = new Article("content" + i, "title" + i);
+            articleService.saveArticle(lastArticle, user.getId());
+            commentService.saveComment(new Comment("my comment" + i), anotherArticle.getId(), user.getId());
+            commentService.saveComment(new Comment("another comment" + i), lastArticle.getId(), anotherUser.getId());
+        }
+        Long lastArticleId = lastArticle.getId();
+
+        //when
+        try {
+            userService.deleteUser(user.getId());
+        } finally {
+            ReflectionTestUtils.setField(target, "deletionChunkSize", 1000);
+        }
+
+        //then
+        assertThat(userService.getUsernameById(user.getId())).isNull();
+        assertThat(articleRepository.findById(lastArticleId).isPresent()).isFalse();
+        assertThat(articleRepository.findById(anotherArticle.getId()).isPresent()).isTrue();
+        assertThat(commentRepository.findIdsByUserId(user.getId(), Pageable.unpaged())).isEmpty();
+        assertThat(commentRepository.findIdsByUserId(anotherUser.getId(), Pageable.unpaged())).isEmpty();
+    }
+
+    /**
+     * User service 계층 회원 삭제 테스트 : 게시글 chunk 삭제 중에 실패한 뒤 다시 호출하는 경우.
+     * 실패 전에 삭제된 chunk는 남지 않고, 다시 호출하면 남은 게시글부터 이어서 삭제되어야 한다.
+     */
+    @Test
+    public void userDeleteRetryAfterFailureSuccess() {
+        //given
+        UserService target = AopTestUtils.getTargetObject(userService);
+        ReflectionTestUtils.setField(target, "deletionChunkSize", 2);
+        // 두 번째 게시글 chunk 삭제에서 한 번 실패하는 repository
+        AtomicInteger articleChunks = new AtomicInteger();
+        JpaArticleRepository failingRepository = (JpaArticleRepository) Proxy.newProxyInstance(
+                JpaArticleRepository.class.getClassLoader(), new Class<?>[]{JpaArticleRepository.class},
+                (proxy, method, args) -> {
+                    if(method.getName().equals("bulkDeleteByIds") && articleChunks.incrementAndGet() == 2) {
+                        throw new IllegalStateException("chunk failure");
+                    }
+                    try {
+                        return method.invoke(articleRepository, args);
+                    }
+                    catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        for (int i = 0; i < 5; i++) {
+            articleService.saveArticle(new Article("content" + i, "title" + i), user.getId());
+        }
+
+        //when
+        ReflectionTestUtils.setField(target, "articleRepository", failingRepository);
+        try {
+            assertThrows(IllegalStateException.class, () -> userService.deleteUser(user.getId()));
+        } finally {
+            ReflectionTestUtils.setField(target, "articleRepository", articleRepository);
+        }
+        List<Long> remainingAfterFailure = articleRepository.findIdsByUserId(user.getId(), Pageable.unpaged());
+        try {
+            userService.deleteUser(user.getId());
+        } finally {
+            ReflectionTestUtils.setField(target, "deletionChunkSize", 1000);
+        }
+
+        //then
+        assertThat(remainingAfterFailure).hasSize(3);
+        assertThat(userService.getUsernameById(user.getId())).isNull();
+        assertThat(articleRepository.findIdsByUserId(user.getId(), Pageable.unpaged())).isEmpty();
+    }
+
     /**
      * User service 계층 회원 삭제 테스트 : 회원 탈퇴(삭제) 시 해당 id의 회원이 존재하지 않는 경우. → BlogResourceNotFoundException
      */
@@ -90,6 +231,25 @@ public class UserServiceTest {
         log.debug("userDeleteNotFoundFailure(), no user to delete exception message={}", thrown.getMessage());
     }
 
+    /**
+     * BlogException stack trace 테스트 : -Dblog.exception.stack-trace=true 로 실행하지 않으면 stack trace 없이 생성된다.
+     */
+    @Test
+    public void blogExceptionWithoutStackTrace() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+
+        //when
+        BlogUserNotFoundException thrown = assertThrows(BlogUserNotFoundException.class, () -> {
+            userService.userLoginCheck(new User("email~", "wrong~"));
+        });
+
+        //then
+        assertThat(thrown.getMessage()).isEqualTo("로그인 실패. 회원 정보가 없습니다.");
+        assertThat(thrown.getStackTrace()).isEmpty();
+    }
+
     /**
      * User service 계층 회원 로그인 테스트 : 성공한 경우.
      */
@@ -107,6 +267,31 @@ public class UserServiceTest {
         assertThat(resultUser).isEqualTo(user);
     }
 
+    /**
+     * User service 계층 회원 로그인 테스트 : 이전 형식(SHA-256)으로 저장된 비밀번호로 로그인한 경우. → Argon2 형식으로 다시 저장
+     */
+    @Test
+    public void userLoginRehashLegacyPassword() {
+        //given
+        User legacyUser = new User("email~", userService.encryptStringWithSha256("password~"), "username~");
+        legacyUser.setCreatedTime(LocalDateTime.now());
+        userRepository.save(legacyUser);
+
+        //when
+        userService.userLoginCheck(new User("email~", "password~"));
+        em.flush();
+        em.clear();
+
+        //then
+        String storedPassword = userRepository.findById(legacyUser.getId()).orElseThrow().getPassword();
+        log.debug("userLoginRehashLegacyPassword(), upgraded password={}", storedPassword);
+        assertThat(storedPassword).startsWith("{argon2}");
+        assertThat(userService.userLoginCheck(new User("email~", "password~")).getId()).isEqualTo(legacyUser.getId());
+        assertThrows(BlogUserNotFoundException.class, () -> {
+            userService.userLoginCheck(new User("email~", "wrong~"));
+        });
+    }
+
     /**
      * User service 계층 회원 로그인 테스트 : 로그인 시 회원 정보가 없는 경우. → BlogResourceNotFoundException
      */
@@ -131,4 +316,67 @@ public class UserServiceTest {
         log.debug("userLoginNotFoundFailure(), wrong login password exception message={}", thrown2.getMessage());
 
     }
+
+    /**
+     * User service 계층 게시글 소유 확인 테스트 : 성공한 경우.
+     */
+    @Test
+    public void checkIsArticleFromUserSuccess() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        Article article = new Article("content~~", "title~~");
+        articleService.saveArticle(article, user.getId());
+
+        //when, then
+        userService.checkIsArticleFromUser(article.getId(), user.getId());
+    }
+
+    /**
+     * User service 계층 게시글 소유 확인 테스트 : 다른 회원의 게시글이거나 회원이 존재하지 않는 경우.
+     * → BlogNotAuthorizedException, BlogUserNotFoundException
+     */
+    @Test
+    public void checkIsArticleFromUserFailure() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        User anotherUser = new User("another~", "password~", "another~");
+        userService.saveUser(anotherUser);
+        Article article = new Article("content~~", "title~~");
+        articleService.saveArticle(article, anotherUser.getId());
+
+        //when, then
+        BlogNotAuthorizedException thrown1 = assertThrows(BlogNotAuthorizedException.class, () -> {
+            userService.checkIsArticleFromUser(article.getId(), user.getId());
+        });
+        log.debug("checkIsArticleFromUserFailure(), another user's article exception message={}", thrown1.getMessage());
+        BlogUserNotFoundException thrown2 = assertThrows(BlogUserNotFoundException.class, () -> {
+            userService.checkIsArticleFromUser(article.getId(), anotherUser.getId() + 100);
+        });
+        log.debug("checkIsArticleFromUserFailure(), no user exception message={}", thrown2.getMessage());
+    }
+
+    /**
+     * User service 계층 댓글 소유 확인 테스트 : 성공한 경우와 다른 회원의 댓글인 경우. → BlogNotAuthorizedException
+     */
+    @Test
+    public void checkIsCommentFromUserTest() {
+        //given
+        User user = new User("email~", "password~", "username~");
+        userService.saveUser(user);
+        User anotherUser = new User("another~", "password~", "another~");
+        userService.saveUser(anotherUser);
+        Article article = new Article("content~~", "title~~");
+        articleService.saveArticle(article, user.getId());
+        Comment comment = new Comment("comment content~");
+        commentService.saveComment(comment, article.getId(), user.getId());
+
+        //when, then
+        userService.checkIsCommentFromUser(comment.getId(), user.getId());
+        BlogNotAuthorizedException thrown = assertThrows(BlogNotAuthorizedException.class, () -> {
+            userService.checkIsCommentFromUser(comment.getId(), anotherUser.getId());
+        });
+        log.debug("checkIsCommentFromUserTest(), another user's comment exception message={}", thrown.getMessage());
+    }
 }
@@ -0,0 +1,199 @@
+package springproject.urssublog.session;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import springproject.urssublog.session.NearCachedJdbcSessionRepository.BlogSession;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * NearCachedJdbcSessionRepository 테스트. MySQL 대신 H2(MySQL 호환 모드) 메모리 DB를 사용하고, 시간은 테스트에서 직접 진행시킨다.
+ */
+public class NearCachedJdbcSessionRepositoryTest {
+    private static final Duration TIMEOUT = Duration.ofMinutes(30);
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:session;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final TestClock clock = new TestClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private NearCachedJdbcSessionRepository repository;
+
+    private static final class TestClock extends Clock {
+        private Instant now;
+
+        private TestClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/schema-session.sql")).execute(dataSource);
+        jdbcTemplate.update("DELETE FROM blog_session");
+        repository = newRepository();
+    }
+
+    // 다른 노드(또는 재시작한 노드). near cache를 공유하지 않는다.
+    private NearCachedJdbcSessionRepository newRepository() {
+        return new NearCachedJdbcSessionRepository(jdbcTemplate, TIMEOUT, Duration.ofSeconds(10), 100, clock);
+    }
+
+    private BlogSession saveLoginSession() {
+        BlogSession session = repository.createSession();
+        session.setAttribute("id", 1L);
+        session.setAttribute("email", "email@email.com");
+        repository.save(session);
+        return session;
+    }
+
+    private long storedLastAccessTime(String id) {
+        return jdbcTemplate.queryForObject("SELECT last_access_time FROM blog_session WHERE session_id = ?", Long.class, id);
+    }
+
+    /**
+     * 저장한 session을 다른 노드(재시작한 노드)에서 조회 테스트
+     */
+    @Test
+    public void saveAndFindFromAnotherNodeTest() {
+        //given
+        BlogSession session = saveLoginSession();
+
+        //when
+        BlogSession found = newRepository().findById(session.getId());
+
+        //then
+        assertThat(found).isNotNull();
+        assertThat((Long) found.getAttribute("id")).isEqualTo(1L);
+        assertThat((String) found.getAttribute("email")).isEqualTo("email@email.com");
+        assertThat(found.getMaxInactiveInterval()).isEqualTo(TIMEOUT);
+    }
+
+    /**
+     * 속성 변경은 바로 DB에 반영되는지 테스트
+     */
+    @Test
+    public void attributeChangeWriteThroughTest() {
+        //given
+        BlogSession session = saveLoginSession();
+
+        //when
+        BlogSession found = repository.findById(session.getId());
+        found.removeAttribute("email");
+        repository.save(found);
+
+        //then
+        BlogSession fromAnotherNode = newRepository().findById(session.getId());
+        assertThat((String) fromAnotherNode.getAttribute("email")).isNull();
+        assertThat((Long) fromAnotherNode.getAttribute("id")).isEqualTo(1L);
+    }
+
+    /**
+     * session id 변경(로그인 시 session fixation 방지) 테스트
+     */
+    @Test
+    public void changeSessionIdTest() {
+        //given
+        BlogSession session = saveLoginSession();
+        String oldId = session.getId();
+
+        //when
+        BlogSession found = repository.findById(oldId);
+        String newId = found.changeSessionId();
+        repository.save(found);
+
+        //then
+        assertThat(repository.findById(oldId)).isNull();
+        assertThat(newRepository().findById(oldId)).isNull();
+        assertThat(newRepository().findById(newId)).isNotNull();
+    }
+
+    /**
+     * 마지막 접근 시간만 바뀐 경우 flush 전까지 DB에 반영되지 않고, flush 시 한 번에 반영되는지 테스트
+     */
+    @Test
+    public void lastAccessTimeBatchUpdateTest() {
+        //given
+        BlogSession session = saveLoginSession();
+        long created = storedLastAccessTime(session.getId());
+
+        //when
+        for (int i = 0; i < 3; i++) {
+            clock.advance(Duration.ofMinutes(1));
+            BlogSession found = repository.findById(session.getId());
+            found.setLastAccessedTime(clock.instant());
+            repository.save(found);
+        }
+
+        //then
+        assertThat(storedLastAccessTime(session.getId())).isEqualTo(created);
+        repository.flushLastAccessTimes();
+        assertThat(storedLastAccessTime(session.getId())).isEqualTo(clock.millis());
+    }
+
+    /**
+     * 만료된 session만 삭제되고, 아직 반영되지 않은 접근 시간이 있는 session은 삭제되지 않는지 테스트
+     */
+    @Test
+    public void deleteExpiredSessionsTest() {
+        //given
+        BlogSession expired = saveLoginSession();
+        BlogSession active = saveLoginSession();
+        clock.advance(TIMEOUT.minusMinutes(1));
+        BlogSession found = repository.findById(active.getId());
+        found.setLastAccessedTime(clock.instant());
+        repository.save(found);
+        clock.advance(Duration.ofMinutes(2));
+
+        //when
+        repository.deleteExpiredSessions();
+
+        //then
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM blog_session WHERE session_id = ?", Long.class, expired.getId())).isZero();
+        assertThat(repository.findById(expired.getId())).isNull();
+        assertThat(newRepository().findById(active.getId())).isNotNull();
+    }
+
+    /**
+     * session 삭제(로그아웃) 테스트
+     */
+    @Test
+    public void deleteByIdTest() {
+        //given
+        BlogSession session = saveLoginSession();
+
+        //when
+        repository.deleteById(session.getId());
+
+        //then
+        assertThat(repository.findById(session.getId())).isNull();
+        assertThat(newRepository().findById(session.getId())).isNull();
+    }
+}
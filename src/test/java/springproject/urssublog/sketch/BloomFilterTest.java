@@ -0,0 +1,56 @@
+package springproject.urssublog.sketch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * BloomFilter 테스트. 추가한 값은 항상 있을 수 있음으로, 추가하지 않은 값의 오탐은 fpp 근처로 나오는지 확인한다.
+ */
+@Slf4j
+public class BloomFilterTest {
+    /**
+     * 추가한 값 조회 테스트 : 거짓 음성이 없어야 한다.
+     */
+    @Test
+    public void noFalseNegativeTest() {
+        //given
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+
+        //when
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@email.com");
+        }
+
+        //then
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@email.com")).isTrue();
+        }
+    }
+
+    /**
+     * 추가하지 않은 값 조회 테스트 : 오탐 비율이 fpp의 2배를 넘지 않아야 한다.
+     */
+    @Test
+    public void falsePositiveRateTest() {
+        //given
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@email.com");
+        }
+
+        //when
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if(filter.mightContain("other" + i + "@email.com")) {
+                falsePositives++;
+            }
+        }
+
+        //then
+        double rate = falsePositives / 100_000.0;
+        log.debug("falsePositiveRateTest(), bits={}, hashes={}, false positive rate={}", filter.bitSize(), filter.hashCount(), rate);
+        assertThat(rate).isLessThan(0.02);
+    }
+}
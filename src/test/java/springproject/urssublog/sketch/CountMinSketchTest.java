@@ -0,0 +1,53 @@
+package springproject.urssublog.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CountMinSketch 테스트. 추정값은 실제 빈도보다 작지 않고, 오차는 전체 추가 수의 e/width 근처여야 한다.
+ */
+public class CountMinSketchTest {
+    /**
+     * 빈도 추정 테스트 : 과소 추정이 없고, 자주 추가한 key는 거의 정확하게 추정하는 경우.
+     */
+    @Test
+    public void estimateTest() {
+        //given
+        CountMinSketch sketch = new CountMinSketch(1000, 4);
+        long total = 0;
+
+        //when
+        for (long key = 0; key < 10_000; key++) {
+            sketch.add(key, 1);
+            total++;
+        }
+        sketch.add(42L, 5_000);
+        total += 5_000;
+
+        //then
+        assertThat(sketch.width()).isEqualTo(1024);
+        long maxError = (long) Math.ceil(Math.E / sketch.width() * total);
+        for (long key = 0; key < 10_000; key++) {
+            assertThat(sketch.estimate(key)).isGreaterThanOrEqualTo(1);
+        }
+        assertThat(sketch.estimate(42L)).isBetween(5_001L, 5_001L + maxError);
+        assertThat(sketch.estimate(-1L)).isLessThanOrEqualTo(maxError);
+    }
+
+    /**
+     * 비우기 테스트
+     */
+    @Test
+    public void clearTest() {
+        //given
+        CountMinSketch sketch = new CountMinSketch(64, 2);
+        sketch.add(7L, 3);
+
+        //when
+        sketch.clear();
+
+        //then
+        assertThat(sketch.estimate(7L)).isZero();
+    }
+}
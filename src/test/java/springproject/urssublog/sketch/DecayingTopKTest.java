@@ -0,0 +1,164 @@
+package springproject.urssublog.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * DecayingTopK 테스트. 시간은 테스트에서 직접 진행시킨다.
+ */
+public class DecayingTopKTest {
+    private static final Duration WINDOW = Duration.ofMinutes(5);
+
+    private static final class TestClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private final TestClock clock = new TestClock();
+
+    private DecayingTopK newTopK(int capacity) {
+        return new DecayingTopK(capacity, WINDOW, 4, 0.5, 1024, 4, clock);
+    }
+
+    /**
+     * 상위 key 테스트 : heap이 가득 찬 뒤에도 더 자주 추가된 key가 점수 순으로 남는 경우.
+     */
+    @Test
+    public void topTest() {
+        //given
+        DecayingTopK topK = newTopK(3);
+
+        //when
+        for (long key = 1; key <= 10; key++) {
+            for (int i = 0; i < key * 10; i++) {
+                topK.add(key, 1);
+            }
+        }
+
+        //then
+        List<DecayingTopK.Entry> top = topK.top(3);
+        assertThat(top).extracting(DecayingTopK.Entry::key).containsExactly(10L, 9L, 8L);
+        assertThat(top.get(0).score()).isEqualTo(100.0);
+        assertThat(topK.top(2)).hasSize(2);
+        assertThat(topK.size()).isEqualTo(3);
+    }
+
+    /**
+     * 감쇠 테스트 : window가 지나면 점수가 decay만큼 줄고, 유지하는 window를 모두 지나면 heap에서 빠지는 경우.
+     */
+    @Test
+    public void decayTest() {
+        //given
+        DecayingTopK topK = newTopK(3);
+        topK.add(1L, 80);
+
+        //when
+        clock.advance(WINDOW);
+        topK.add(2L, 50);
+
+        //then
+        assertThat(topK.score(1L)).isCloseTo(40.0, within(1e-9));
+        assertThat(topK.top(3)).extracting(DecayingTopK.Entry::key).containsExactly(2L, 1L);
+
+        //when
+        clock.advance(WINDOW.multipliedBy(4));
+
+        //then
+        assertThat(topK.top(3)).isEmpty();
+        assertThat(topK.size()).isZero();
+    }
+
+    /**
+     * 과거 시각 추가 테스트 : 유지하는 window 안의 시각은 해당 window에, 그보다 오래된 시각은 무시하는 경우.
+     */
+    @Test
+    public void addAtPastTimeTest() {
+        //given
+        DecayingTopK topK = newTopK(3);
+        long now = clock.millis();
+
+        //when
+        topK.add(1L, 8, now - WINDOW.toMillis());
+        topK.add(2L, 8, now - WINDOW.multipliedBy(4).toMillis());
+
+        //then
+        assertThat(topK.score(1L)).isCloseTo(4.0, within(1e-9));
+        assertThat(topK.score(2L)).isZero();
+        assertThat(topK.top(3)).extracting(DecayingTopK.Entry::key).containsExactly(1L);
+    }
+
+    /**
+     * 제거 테스트 : 삭제된 key를 heap에서 제거하는 경우.
+     */
+    @Test
+    public void removeTest() {
+        //given
+        DecayingTopK topK = newTopK(3);
+        topK.add(1L, 5);
+        topK.add(2L, 3);
+
+        //when
+        topK.remove(List.of(1L));
+
+        //then
+        assertThat(topK.top(3)).extracting(DecayingTopK.Entry::key).containsExactly(2L);
+    }
+
+    /**
+     * 동시 추가 테스트 : 여러 스레드에서 후보 key와 후보가 아닌 key를 동시에 추가해도 점수가 빠지지 않는 경우.
+     */
+    @Test
+    public void concurrentAddTest() throws Exception {
+        //given
+        DecayingTopK topK = newTopK(3);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        //when
+        for (int thread = 0; thread < 8; thread++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    topK.add(1L, 3);
+                    topK.add(2L, 2);
+                    topK.add(3L, 1);
+                    topK.add(100L + i % 50, 1);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        //then
+        List<DecayingTopK.Entry> top = topK.top(3);
+        assertThat(top).extracting(DecayingTopK.Entry::key).containsExactly(1L, 2L, 3L);
+        assertThat(top).extracting(DecayingTopK.Entry::score).containsExactly(24_000.0, 16_000.0, 8_000.0);
+    }
+}
@@ -0,0 +1,105 @@
+package springproject.urssublog.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * HyperLogLog 테스트. precision 12의 표준 오차는 약 1.6%이므로, 추정값이 실제 값의 5% 안에 있는지 확인한다.
+ */
+public class HyperLogLogTest {
+    /**
+     * 추정 테스트 : 같은 값을 여러 번 추가해도 한 번으로 세는 경우.
+     */
+    @Test
+    public void estimateTest() {
+        //given
+        HyperLogLog small = new HyperLogLog(12);
+        HyperLogLog large = new HyperLogLog(12);
+
+        //when
+        for (long value = 0; value < 100; value++) {
+            small.add(value);
+            small.add(value);
+        }
+        for (long value = 0; value < 100_000; value++) {
+            large.add(value);
+        }
+
+        //then
+        assertThat(small.estimate()).isCloseTo(100L, within(5L));
+        assertThat(large.estimate()).isCloseTo(100_000L, within(5_000L));
+    }
+
+    /**
+     * 병합 테스트 : 겹치는 값이 있는 두 sketch를 합치면 합집합의 크기로 추정하는 경우.
+     */
+    @Test
+    public void mergeTest() {
+        //given
+        HyperLogLog monday = new HyperLogLog(12);
+        HyperLogLog tuesday = new HyperLogLog(12);
+        for (long value = 0; value < 20_000; value++) {
+            monday.add(value);
+        }
+        for (long value = 10_000; value < 30_000; value++) {
+            tuesday.add(value);
+        }
+
+        //when
+        HyperLogLog week = monday.copy().merge(tuesday);
+
+        //then
+        assertThat(week.estimate()).isCloseTo(30_000L, within(1_500L));
+        assertThat(monday.estimate()).isCloseTo(20_000L, within(1_000L));
+    }
+
+    /**
+     * 직렬화 테스트 : 값이 적으면 sparse 형식으로 작게, 많으면 dense 형식으로 직렬화하고, 복원한 sketch의 추정값이 같은 경우.
+     */
+    @Test
+    public void bytesTest() {
+        //given
+        HyperLogLog sparse = new HyperLogLog(12);
+        HyperLogLog dense = new HyperLogLog(12);
+        for (long value = 0; value < 10; value++) {
+            sparse.add(value);
+        }
+        for (long value = 0; value < 100_000; value++) {
+            dense.add(value);
+        }
+
+        //when
+        byte[] sparseBytes = sparse.toBytes();
+        byte[] denseBytes = dense.toBytes();
+
+        //then
+        assertThat(sparseBytes.length).isEqualTo(1 + 10 * 3);
+        assertThat(denseBytes.length).isEqualTo(1 + 4096);
+        assertThat(HyperLogLog.fromBytes(sparseBytes).estimate()).isEqualTo(sparse.estimate());
+        assertThat(HyperLogLog.fromBytes(denseBytes).estimate()).isEqualTo(dense.estimate());
+        assertThat(HyperLogLog.fromBytes(denseBytes).precision()).isEqualTo(12);
+    }
+
+    /**
+     * precision 제한 테스트 : 가장 큰 precision의 dense 형식도 BLOB 최대 크기(65535 byte) 안에 들어가는 경우.
+     */
+    @Test
+    public void maxPrecisionTest() {
+        //given
+        HyperLogLog max = new HyperLogLog(HyperLogLog.MAX_PRECISION);
+        for (long value = 0; value < 1_000_000; value++) {
+            max.add(value);
+        }
+
+        //when
+        byte[] bytes = max.toBytes();
+
+        //then
+        assertThat(bytes.length).isEqualTo(1 + (1 << HyperLogLog.MAX_PRECISION)).isLessThanOrEqualTo(65_535);
+        assertThat(HyperLogLog.fromBytes(bytes).estimate()).isEqualTo(max.estimate());
+        assertThatThrownBy(() -> new HyperLogLog(HyperLogLog.MAX_PRECISION + 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}